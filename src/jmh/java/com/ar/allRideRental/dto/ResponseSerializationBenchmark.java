@@ -0,0 +1,109 @@
+package com.ar.allRideRental.dto;
+
+import com.ar.allRideRental.model.Booking;
+import com.ar.allRideRental.model.Vehicle;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// BookingResponse construction and Jackson serialization of the booking and vehicle lists the
+// controllers return, with an ObjectMapper configured the way Spring Boot configures its own.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseSerializationBenchmark {
+
+    @Param({"20", "200"})
+    private int size;
+
+    private ObjectMapper objectMapper;
+    private List<Booking> bookings;
+    private List<BookingResponse> bookingResponses;
+    private List<Vehicle> vehicles;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        bookings = new ArrayList<>();
+        vehicles = new ArrayList<>();
+        LocalDate start = LocalDate.now().plusDays(7);
+        for (int i = 0; i < size; i++) {
+            Vehicle vehicle = new Vehicle("Vehicle " + i, i % 2 == 0 ? "Car" : "Bike", "₹3,800/day",
+                    List.of("GPS", "Bluetooth", "Air Conditioning"), 4.5, "Bangalore",
+                    "https://example.com/images/vehicle-" + i + ".jpg");
+            vehicle.setId((long) i + 1);
+            vehicle.setDescription("Well maintained, recently serviced");
+            vehicle.setCapacity(i % 2 == 0 ? 5 : 2);
+            vehicle.setFuelType("Petrol");
+            vehicle.setTransmission("Automatic");
+            vehicles.add(vehicle);
+
+            Booking booking = new Booking();
+            booking.setId((long) i + 1);
+            booking.setVehicleId(vehicle.getId());
+            booking.setVehicleName(vehicle.getName());
+            booking.setCustomerPhone("9876543210");
+            booking.setCustomerName("Customer " + i);
+            booking.setCustomerEmail("customer" + i + "@example.com");
+            booking.setStartDate(start.plusDays(i));
+            booking.setEndDate(start.plusDays(i + 2));
+            booking.setPickupTime(LocalTime.of(10, 0));
+            booking.setDropoffTime(LocalTime.of(18, 0));
+            booking.setPickupLocation("Indiranagar");
+            booking.setInsurance("basic");
+            booking.setTotalAmount(7600.0);
+            booking.setStatus("confirmed");
+            booking.setBookingDate(LocalDateTime.now());
+            booking.setCreatedAt(LocalDateTime.now());
+            booking.setUpdatedAt(LocalDateTime.now());
+            bookings.add(booking);
+        }
+        bookingResponses = buildBookingResponses();
+    }
+
+    @Benchmark
+    public List<BookingResponse> buildBookingResponses() {
+        List<BookingResponse> responses = new ArrayList<>(bookings.size());
+        for (Booking booking : bookings) {
+            responses.add(new BookingResponse(booking, "https://example.com/images/vehicle.jpg"));
+        }
+        return responses;
+    }
+
+    @Benchmark
+    public byte[] serializeBookingResponses() throws Exception {
+        return objectMapper.writeValueAsBytes(bookingResponses);
+    }
+
+    @Benchmark
+    public byte[] serializeBookings() throws Exception {
+        return objectMapper.writeValueAsBytes(bookings);
+    }
+
+    @Benchmark
+    public byte[] serializeVehicles() throws Exception {
+        return objectMapper.writeValueAsBytes(vehicles);
+    }
+}
@@ -0,0 +1,86 @@
+package com.ar.allRideRental.service;
+
+import com.ar.allRideRental.AllRideRentalApplication;
+import com.ar.allRideRental.model.Booking;
+import com.ar.allRideRental.model.BookingRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// BookingService.createBooking end to end (vehicle lookup, admission lock, overlap check, insert,
+// index and statistics update) against the in-memory H2 database of the test profile.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CreateBookingBenchmark {
+
+    // Vehicles seeded by DataInitializer
+    private static final int VEHICLES = 8;
+
+    private ConfigurableApplicationContext context;
+    private BookingService bookingService;
+
+    // Every request gets its own two-day slot, so none is rejected as overlapping
+    private final AtomicLong sequence = new AtomicLong();
+    private LocalDate firstDay;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(AllRideRentalApplication.class)
+                .web(WebApplicationType.NONE)
+                // As arguments, so they win over spring.profiles.active in application.properties
+                .run("--spring.profiles.active=test", "--ratelimit.enabled=false");
+        bookingService = context.getBean(BookingService.class);
+        firstDay = LocalDate.now().plusDays(1);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Booking createBooking() {
+        long n = sequence.getAndIncrement();
+        long vehicleId = n % VEHICLES + 1;
+        LocalDate start = firstDay.plusDays(n / VEHICLES * 2);
+
+        BookingRequest request = new BookingRequest();
+        request.setVehicleId(vehicleId);
+        request.setVehicleName("Vehicle " + vehicleId);
+        request.setCustomerPhone("98" + String.format("%08d", n % 100_000_000));
+        request.setCustomerName("Benchmark");
+        request.setStartDate(start);
+        request.setEndDate(start.plusDays(1));
+        request.setTotalAmount(1500.0);
+        request.setStatus("confirmed");
+        return bookingService.createBooking(request);
+    }
+
+    // Same path with contended admission locks
+    @Benchmark
+    @Threads(4)
+    public Booking createBookingConcurrent() {
+        return createBooking();
+    }
+}
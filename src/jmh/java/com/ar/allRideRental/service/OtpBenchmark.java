@@ -0,0 +1,56 @@
+package com.ar.allRideRental.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+// OTPService.generateOTP (single- and multi-threaded, it shares one Random) and phone formatting
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OtpBenchmark {
+
+    private OTPService otpService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        otpService = new OTPService();
+        ReflectionTestUtils.setField(otpService, "otpLength", 6);
+    }
+
+    @Benchmark
+    public String generateOtp() {
+        return otpService.generateOTP();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String generateOtpContended() {
+        return otpService.generateOTP();
+    }
+
+    @Benchmark
+    public String formatTenDigitPhone() {
+        return otpService.formatPhoneNumber("98765 43210");
+    }
+
+    @Benchmark
+    public String formatPrefixedPhone() {
+        return otpService.formatPhoneNumber("+91-98765-43210");
+    }
+}
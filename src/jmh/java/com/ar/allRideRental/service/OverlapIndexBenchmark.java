@@ -0,0 +1,87 @@
+package com.ar.allRideRental.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Overlap checks of BookingAvailabilityIndex.VehicleIntervals for one vehicle holding
+// 10^3..10^6 bookings: the binary-search path, the day-bitmap path and the cost of an insert.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class OverlapIndexBenchmark {
+
+    private static final int HORIZON_DAYS = 365;
+    private static final int PROBES = 1024;
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    private int bookingsPerVehicle;
+
+    private BookingAvailabilityIndex.VehicleIntervals intervals;
+    private long today;
+    private long[] probeStarts;
+    private long[] probeEnds;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        today = LocalDate.now().toEpochDay();
+
+        // Short rentals spread over the years before and after today, so both overlapping and
+        // free probes exist at every size
+        long span = Math.max(2L * HORIZON_DAYS, bookingsPerVehicle / 2);
+        long[] ids = new long[bookingsPerVehicle];
+        long[] starts = new long[bookingsPerVehicle];
+        long[] ends = new long[bookingsPerVehicle];
+        for (int i = 0; i < bookingsPerVehicle; i++) {
+            ids[i] = i + 1;
+            starts[i] = today - span + random.nextLong(2 * span);
+            ends[i] = starts[i] + random.nextInt(1, 4);
+        }
+        intervals = BookingAvailabilityIndex.VehicleIntervals.of(ids, starts, ends);
+        intervals.bitmap(today, HORIZON_DAYS);
+
+        probeStarts = new long[PROBES];
+        probeEnds = new long[PROBES];
+        for (int i = 0; i < PROBES; i++) {
+            probeStarts[i] = today + random.nextInt(HORIZON_DAYS - 7);
+            probeEnds[i] = probeStarts[i] + random.nextInt(1, 7);
+        }
+    }
+
+    @Benchmark
+    public boolean overlapsBinarySearch() {
+        int i = next++ & (PROBES - 1);
+        return intervals.overlaps(probeStarts[i], probeEnds[i]);
+    }
+
+    @Benchmark
+    public boolean overlapsBitmap() {
+        int i = next++ & (PROBES - 1);
+        return intervals.bitmap(today, HORIZON_DAYS).anySet(probeStarts[i], probeEnds[i]);
+    }
+
+    // Copy-on-write insert, paid by every booking create/status change
+    @Benchmark
+    public BookingAvailabilityIndex.VehicleIntervals insert() {
+        int i = next++ & (PROBES - 1);
+        return intervals.with(-1 - i, probeStarts[i], probeEnds[i]);
+    }
+}
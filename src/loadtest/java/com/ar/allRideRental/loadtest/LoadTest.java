@@ -0,0 +1,168 @@
+package com.ar.allRideRental.loadtest;
+
+import com.ar.allRideRental.AllRideRentalApplication;
+import com.ar.allRideRental.service.OtpStore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.File;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Boots the application on in-memory H2 with a local OTP provider stub and a synthetic dataset
+// (config.DataGenerator, sized by loadtest.vehicles/users/bookings), then drives
+// the configured traffic mix open-loop. With loadtest.find-max it doubles the rate until a step
+// is no longer sustainable, then bisects to the highest sustainable rate.
+//
+//   mvn -Ploadtest -DskipTests verify -Dloadtest.rate=200 -Dloadtest.find-max=true
+//
+// Everything runs offline in one JVM; per-endpoint HdrHistogram percentiles are printed per step
+// and written to loadtest.output as JSON.
+public final class LoadTest {
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        double rate = Double.parseDouble(property("loadtest.rate", "100"));
+        Duration duration = Duration.ofSeconds(Long.parseLong(property("loadtest.duration-seconds", "20")));
+        Duration warmup = Duration.ofSeconds(Long.parseLong(property("loadtest.warmup-seconds", "10")));
+        boolean findMax = Boolean.parseBoolean(property("loadtest.find-max", "false"));
+        double maxRate = Double.parseDouble(property("loadtest.max-rate", "20000"));
+        int searchSteps = Integer.parseInt(property("loadtest.search-steps", "4"));
+        double sloP99Millis = Double.parseDouble(property("loadtest.slo-p99-ms", "250"));
+        double maxErrorRate = Double.parseDouble(property("loadtest.max-error-rate", "0.01"));
+        int maxOutstanding = Integer.parseInt(property("loadtest.max-outstanding", "2000"));
+        int vehicles = Integer.parseInt(property("loadtest.vehicles", "200"));
+        int users = Integer.parseInt(property("loadtest.users", "10000"));
+        int bookings = Integer.parseInt(property("loadtest.bookings", "100000"));
+        long providerLatencyMillis = Long.parseLong(property("loadtest.provider-latency-ms", "50"));
+        boolean appOutput = Boolean.parseBoolean(property("loadtest.app-output", "false"));
+        TrafficMix mix = new TrafficMix(property("loadtest.mix", "browse=40,availability=25,booking=5,otp=10,profile=20"));
+        File output = new File(property("loadtest.output", "target/loadtest-result.json"));
+
+        // The application logs every OTP and booking to stdout; keep the report readable
+        PrintStream report = System.out;
+        if (!appOutput) {
+            System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        }
+
+        ExecutorService clientExecutor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors() * 2);
+        try (StubOtpProvider provider = new StubOtpProvider(providerLatencyMillis)) {
+            ConfigurableApplicationContext context = SpringApplication.run(AllRideRentalApplication.class,
+                    "--spring.profiles.active=test",
+                    "--server.port=0",
+                    "--spring.jpa.properties.hibernate.generate_statistics=false",
+                    "--logging.level.root=WARN",
+                    "--ratelimit.enabled=false",
+                    "--sms.provider=msg91_whatsapp",
+                    "--msg91.whatsapp.url=" + provider.url(StubOtpProvider.WHATSAPP),
+                    "--msg91.sms.url=" + provider.url(StubOtpProvider.SMS),
+                    "--app.datagen.enabled=true",
+                    "--app.datagen.vehicles=" + vehicles,
+                    "--app.datagen.users=" + users,
+                    "--app.datagen.bookings=" + bookings);
+            try {
+                int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+                JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+                List<String> phones = jdbcTemplate.queryForList("SELECT phone FROM users", String.class);
+                List<Long> vehicleIds = jdbcTemplate.queryForList(
+                        "SELECT id FROM vehicles WHERE is_available = TRUE", Long.class);
+                List<String> cities = jdbcTemplate.queryForList("SELECT DISTINCT city FROM vehicles", String.class);
+
+                HttpClient client = HttpClient.newBuilder()
+                        .version(HttpClient.Version.HTTP_1_1)
+                        .connectTimeout(Duration.ofSeconds(5))
+                        .executor(clientExecutor)
+                        .build();
+                RentalTraffic traffic = new RentalTraffic(client, "http://localhost:" + port,
+                        context.getBean(OtpStore.class), phones, vehicleIds, cities);
+                OpenLoopDriver driver = new OpenLoopDriver(traffic, mix, maxOutstanding);
+
+                report.printf("Load test: mix [%s], %d users, %d vehicles, %d bookings, SLO p99 <= %.0f ms, step %ds%n",
+                        mix, phones.size(), vehicleIds.size(), bookings, sloP99Millis, duration.toSeconds());
+                report.printf("Warming up at %.0f req/s for %ds%n", rate, warmup.toSeconds());
+                driver.run(rate, warmup);
+
+                List<StepResults> steps = new ArrayList<>();
+                Double maxSustainable = null;
+                if (!findMax) {
+                    steps.add(step(driver, rate, duration, sloP99Millis, maxErrorRate, report));
+                } else {
+                    // Ramp up by doubling, then bisect between the last good and first bad rate
+                    double good = 0;
+                    double bad = 0;
+                    for (double current = rate; current <= maxRate; current *= 2) {
+                        StepResults result = step(driver, current, duration, sloP99Millis, maxErrorRate, report);
+                        steps.add(result);
+                        if (!result.isSustainable(sloP99Millis, maxErrorRate)) {
+                            bad = current;
+                            break;
+                        }
+                        good = current;
+                    }
+                    for (int i = 0; i < searchSteps && bad > 0 && bad - good > Math.max(1, good * 0.05); i++) {
+                        double current = good == 0 ? bad / 2 : (good + bad) / 2;
+                        StepResults result = step(driver, current, duration, sloP99Millis, maxErrorRate, report);
+                        steps.add(result);
+                        if (result.isSustainable(sloP99Millis, maxErrorRate)) {
+                            good = current;
+                        } else {
+                            bad = current;
+                        }
+                    }
+                    maxSustainable = good;
+                    report.printf("%nMaximum sustainable throughput: %.0f req/s%s%n", good,
+                            bad == 0 ? " (limited by loadtest.max-rate)" : "");
+                }
+
+                writeResult(output, mix, sloP99Millis, maxSustainable, steps);
+                report.println("Results written to " + output.getPath());
+            } finally {
+                context.close();
+            }
+        } finally {
+            clientExecutor.shutdownNow();
+            System.setOut(report);
+        }
+        System.exit(0);
+    }
+
+    private static StepResults step(OpenLoopDriver driver, double rate, Duration duration,
+                                    double sloP99Millis, double maxErrorRate, PrintStream report) throws InterruptedException {
+        report.printf("%nStep at %.0f req/s for %ds%n", rate, duration.toSeconds());
+        StepResults result = driver.run(rate, duration);
+        report.print(result.report());
+        report.println(result.isSustainable(sloP99Millis, maxErrorRate) ? "=> sustainable" : "=> NOT sustainable");
+        return result;
+    }
+
+    private static void writeResult(File output, TrafficMix mix, double sloP99Millis, Double maxSustainable,
+                                    List<StepResults> steps) throws Exception {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("mix", mix.toString());
+        result.put("sloP99Millis", sloP99Millis);
+        result.put("maxSustainableRate", maxSustainable);
+        result.put("steps", steps.stream().map(StepResults::summary).toList());
+        if (output.getParentFile() != null) {
+            output.getParentFile().mkdirs();
+        }
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(output, result);
+    }
+
+    private static String property(String name, String defaultValue) {
+        return System.getProperty(name, defaultValue);
+    }
+}
@@ -0,0 +1,65 @@
+package com.ar.allRideRental.loadtest;
+
+import java.time.Duration;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+// Open-loop load: requests are started on a fixed schedule whether or not earlier ones have
+// finished, and latency is taken from the scheduled start, so a stalled server shows up as
+// latency instead of silently lowering the offered rate (coordinated omission).
+final class OpenLoopDriver {
+
+    private final RentalTraffic traffic;
+    private final TrafficMix mix;
+    private final int maxOutstanding;
+    private final SplittableRandom random = new SplittableRandom(42);
+
+    OpenLoopDriver(RentalTraffic traffic, TrafficMix mix, int maxOutstanding) {
+        this.traffic = traffic;
+        this.mix = mix;
+        this.maxOutstanding = maxOutstanding;
+    }
+
+    StepResults run(double ratePerSecond, Duration duration) throws InterruptedException {
+        StepResults results = new StepResults(ratePerSecond);
+        AtomicInteger outstanding = new AtomicInteger();
+        double periodNanos = TimeUnit.SECONDS.toNanos(1) / ratePerSecond;
+        long durationNanos = duration.toNanos();
+
+        long start = System.nanoTime();
+        for (long i = 0; ; i++) {
+            long intended = start + (long) (i * periodNanos);
+            if (intended - start >= durationNanos) {
+                break;
+            }
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+
+            String scenario = mix.pick(random);
+            if (outstanding.get() >= maxOutstanding) {
+                results.recordDropped(scenario);
+                continue;
+            }
+            outstanding.incrementAndGet();
+            traffic.fire(scenario, random.split(), intended, results)
+                    .whenComplete((ignored, error) -> {
+                        results.scenarioCompleted();
+                        outstanding.decrementAndGet();
+                    });
+        }
+
+        long scheduleEnd = System.nanoTime();
+
+        // Let the tail of the step complete (bounded by the request timeout)
+        long drainDeadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(15);
+        while (outstanding.get() > 0 && System.nanoTime() < drainDeadline) {
+            Thread.sleep(10);
+        }
+        results.finish((scheduleEnd - start) / 1e9);
+        return results;
+    }
+}
@@ -0,0 +1,143 @@
+package com.ar.allRideRental.loadtest;
+
+import com.ar.allRideRental.service.OtpStore;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+
+// The requests behind each scenario of the traffic mix, shaped like the frontend's calls:
+// - browse:       catalog list, one city, one type or one vehicle
+// - availability: single-vehicle availability for a random future range
+// - booking:      POST /api/bookings for a seeded user (overlaps come back as 400)
+// - otp:          send-otp for a fresh number, then verify-otp with the stored code
+// - profile:      profile (with bookings) and check-user of a seeded user
+final class RentalTraffic {
+
+    static final Set<String> SCENARIOS = Set.of("browse", "availability", "booking", "otp", "profile");
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(10);
+
+    private final HttpClient client;
+    private final String baseUrl;
+    private final OtpStore otpStore;
+    private final List<String> userPhones;
+    private final List<Long> vehicleIds;
+    private final List<String> cities;
+    private final LocalDate today = LocalDate.now();
+
+    RentalTraffic(HttpClient client, String baseUrl, OtpStore otpStore,
+                  List<String> userPhones, List<Long> vehicleIds, List<String> cities) {
+        this.client = client;
+        this.baseUrl = baseUrl;
+        this.otpStore = otpStore;
+        this.userPhones = userPhones;
+        this.vehicleIds = vehicleIds;
+        this.cities = cities;
+    }
+
+    CompletableFuture<?> fire(String scenario, SplittableRandom random, long intendedNanos, StepResults results) {
+        return switch (scenario) {
+            case "browse" -> browse(random, intendedNanos, results);
+            case "availability" -> availability(random, intendedNanos, results);
+            case "booking" -> booking(random, intendedNanos, results);
+            case "otp" -> otp(random, intendedNanos, results);
+            case "profile" -> profile(random, intendedNanos, results);
+            default -> throw new IllegalArgumentException("Unknown scenario " + scenario);
+        };
+    }
+
+    private CompletableFuture<?> browse(SplittableRandom random, long intendedNanos, StepResults results) {
+        int pick = random.nextInt(10);
+        if (pick < 4) {
+            return get("catalog", "/api/vehicles", intendedNanos, results);
+        } else if (pick < 7) {
+            return get("catalog-city", "/api/vehicles/city/" + any(cities, random), intendedNanos, results);
+        } else if (pick < 9) {
+            return get("catalog-type", "/api/vehicles/type/" + (random.nextBoolean() ? "Car" : "Bike"), intendedNanos, results);
+        }
+        return get("vehicle", "/api/vehicles/" + any(vehicleIds, random), intendedNanos, results);
+    }
+
+    private CompletableFuture<?> availability(SplittableRandom random, long intendedNanos, StepResults results) {
+        LocalDate start = today.plusDays(random.nextInt(1, 180));
+        LocalDate end = start.plusDays(random.nextInt(1, 7));
+        return get("availability", "/api/bookings/availability?vehicleId=" + any(vehicleIds, random)
+                + "&startDate=" + start + "&endDate=" + end, intendedNanos, results);
+    }
+
+    private CompletableFuture<?> booking(SplittableRandom random, long intendedNanos, StepResults results) {
+        String phone = any(userPhones, random);
+        long vehicleId = any(vehicleIds, random);
+        LocalDate start = today.plusDays(random.nextInt(1, 730));
+        LocalDate end = start.plusDays(random.nextInt(1, 5));
+        String body = "{\"vehicleId\":" + vehicleId
+                + ",\"vehicleName\":\"Vehicle " + vehicleId + "\""
+                + ",\"customerPhone\":\"" + phone + "\""
+                + ",\"customerName\":\"Load Test " + phone + "\""
+                + ",\"startDate\":\"" + start + "\",\"endDate\":\"" + end + "\""
+                + ",\"pickupTime\":\"10:00:00\",\"dropoffTime\":\"18:00:00\""
+                + ",\"pickupLocation\":\"City Centre\",\"insurance\":\"basic\""
+                + ",\"totalAmount\":" + (1500 * (end.toEpochDay() - start.toEpochDay() + 1))
+                + ",\"status\":\"confirmed\"}";
+        return post("booking", "/api/bookings", body, intendedNanos, results);
+    }
+
+    // Numbers outside the seeded range, so the 30s resend throttle rarely applies
+    private CompletableFuture<?> otp(SplittableRandom random, long intendedNanos, StepResults results) {
+        String phone = "8" + String.format("%09d", random.nextInt(1_000_000_000));
+        return post("otp-send", "/api/auth/send-otp", "{\"phoneNumber\":\"" + phone + "\"}", intendedNanos, results)
+                .thenCompose(status -> {
+                    if (status != 200) {
+                        return CompletableFuture.completedFuture(status);
+                    }
+                    // The harness runs in the same JVM, so it can read the code the user would receive
+                    String otp = otpStore.get(phone).map(OtpStore.Entry::getOtp).orElse("000000");
+                    return post("otp-verify", "/api/auth/verify-otp",
+                            "{\"phoneNumber\":\"" + phone + "\",\"otp\":\"" + otp + "\"}", System.nanoTime(), results);
+                });
+    }
+
+    private CompletableFuture<?> profile(SplittableRandom random, long intendedNanos, StepResults results) {
+        String phone = any(userPhones, random);
+        if (random.nextInt(4) == 0) {
+            return get("check-user", "/api/auth/check-user/" + phone, intendedNanos, results);
+        }
+        return get("profile", "/api/auth/profile/" + phone, intendedNanos, results);
+    }
+
+    private CompletableFuture<Integer> get(String endpoint, String path, long intendedNanos, StepResults results) {
+        return send(endpoint, HttpRequest.newBuilder(URI.create(baseUrl + path)).GET(), intendedNanos, results);
+    }
+
+    private CompletableFuture<Integer> post(String endpoint, String path, String json, long intendedNanos,
+                                            StepResults results) {
+        return send(endpoint, HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json)), intendedNanos, results);
+    }
+
+    private CompletableFuture<Integer> send(String endpoint, HttpRequest.Builder request, long intendedNanos,
+                                            StepResults results) {
+        return client.sendAsync(request.timeout(REQUEST_TIMEOUT).build(), HttpResponse.BodyHandlers.discarding())
+                .handle((response, error) -> {
+                    if (error != null) {
+                        results.recordError(endpoint, intendedNanos);
+                        return -1;
+                    }
+                    results.record(endpoint, intendedNanos, response.statusCode());
+                    return response.statusCode();
+                });
+    }
+
+    private static <T> T any(List<T> values, SplittableRandom random) {
+        return values.get(random.nextInt(values.size()));
+    }
+}
@@ -0,0 +1,154 @@
+package com.ar.allRideRental.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Latency histograms (microseconds, measured from the scheduled send time so queueing delay is
+// included) and outcome counters per endpoint for one fixed-rate step.
+final class StepResults {
+
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    static final class EndpointStats {
+        final Histogram latency = new ConcurrentHistogram(MAX_LATENCY_MICROS, 3);
+        // 2xx
+        final LongAdder ok = new LongAdder();
+        // 4xx: business rejections such as an already booked vehicle
+        final LongAdder rejected = new LongAdder();
+        // 5xx, timeouts and connection failures
+        final LongAdder errors = new LongAdder();
+        // Not sent because too many requests were already outstanding
+        final LongAdder dropped = new LongAdder();
+
+        long completed() {
+            return ok.sum() + rejected.sum() + errors.sum();
+        }
+    }
+
+    private final double targetRate;
+    private final Map<String, EndpointStats> endpoints = new ConcurrentHashMap<>();
+    // Scheduled scenarios that finished; follow-up requests (otp-verify) are not counted
+    private final LongAdder scenariosCompleted = new LongAdder();
+    private double elapsedSeconds;
+
+    StepResults(double targetRate) {
+        this.targetRate = targetRate;
+    }
+
+    void record(String endpoint, long intendedNanos, int status) {
+        EndpointStats stats = stats(endpoint);
+        long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - intendedNanos);
+        stats.latency.recordValue(Math.min(Math.max(micros, 0), MAX_LATENCY_MICROS));
+        if (status >= 200 && status < 300) {
+            stats.ok.increment();
+        } else if (status >= 400 && status < 500) {
+            stats.rejected.increment();
+        } else {
+            stats.errors.increment();
+        }
+    }
+
+    void recordError(String endpoint, long intendedNanos) {
+        record(endpoint, intendedNanos, -1);
+    }
+
+    void recordDropped(String endpoint) {
+        stats(endpoint).dropped.increment();
+    }
+
+    void scenarioCompleted() {
+        scenariosCompleted.increment();
+    }
+
+    void finish(double elapsedSeconds) {
+        this.elapsedSeconds = elapsedSeconds;
+    }
+
+    private EndpointStats stats(String endpoint) {
+        return endpoints.computeIfAbsent(endpoint, name -> new EndpointStats());
+    }
+
+    double targetRate() {
+        return targetRate;
+    }
+
+    double achievedRate() {
+        return elapsedSeconds == 0 ? 0 : scenariosCompleted.sum() / elapsedSeconds;
+    }
+
+    EndpointStats total() {
+        EndpointStats total = new EndpointStats();
+        for (EndpointStats stats : endpoints.values()) {
+            total.latency.add(stats.latency);
+            total.ok.add(stats.ok.sum());
+            total.rejected.add(stats.rejected.sum());
+            total.errors.add(stats.errors.sum());
+            total.dropped.add(stats.dropped.sum());
+        }
+        return total;
+    }
+
+    // Sustainable: the p99 meets the SLO, (almost) nothing failed or was dropped, and the
+    // server kept up with the offered rate
+    boolean isSustainable(double sloP99Millis, double maxErrorRate) {
+        EndpointStats total = total();
+        long attempted = total.completed() + total.dropped.sum();
+        return total.completed() > 0
+                && total.latency.getValueAtPercentile(99) / 1000.0 <= sloP99Millis
+                && (double) (total.errors.sum() + total.dropped.sum()) / attempted <= maxErrorRate
+                && achievedRate() >= targetRate * 0.95;
+    }
+
+    String report() {
+        StringBuilder text = new StringBuilder(String.format(
+                "target %.0f req/s, achieved %.1f req/s%n", targetRate, achievedRate()));
+        text.append(String.format("%-14s %8s %7s %7s %7s %9s %9s %9s %9s %9s%n",
+                "endpoint", "count", "4xx", "errors", "dropped", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms"));
+        new TreeMap<>(endpoints).forEach((name, stats) -> text.append(row(name, stats)));
+        text.append(row("TOTAL", total()));
+        return text.toString();
+    }
+
+    private static String row(String name, EndpointStats stats) {
+        Histogram latency = stats.latency;
+        return String.format("%-14s %8d %7d %7d %7d %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                name, stats.completed(), stats.rejected.sum(), stats.errors.sum(), stats.dropped.sum(),
+                latency.getValueAtPercentile(50) / 1000.0, latency.getValueAtPercentile(90) / 1000.0,
+                latency.getValueAtPercentile(99) / 1000.0, latency.getValueAtPercentile(99.9) / 1000.0,
+                latency.getMaxValue() / 1000.0);
+    }
+
+    // For the JSON result file
+    Map<String, Object> summary() {
+        Map<String, Object> byEndpoint = new TreeMap<>();
+        endpoints.forEach((name, stats) -> byEndpoint.put(name, summary(stats)));
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("targetRate", targetRate);
+        summary.put("achievedRate", achievedRate());
+        summary.put("total", summary(total()));
+        summary.put("endpoints", byEndpoint);
+        return summary;
+    }
+
+    private static Map<String, Object> summary(EndpointStats stats) {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("count", stats.completed());
+        summary.put("rejected", stats.rejected.sum());
+        summary.put("errors", stats.errors.sum());
+        summary.put("dropped", stats.dropped.sum());
+        for (double percentile : new double[]{50, 90, 99, 99.9}) {
+            summary.put("p" + (percentile % 1 == 0 ? String.valueOf((int) percentile) : String.valueOf(percentile)) + "Millis",
+                    stats.latency.getValueAtPercentile(percentile) / 1000.0);
+        }
+        summary.put("maxMillis", stats.latency.getMaxValue() / 1000.0);
+        return summary;
+    }
+}
@@ -0,0 +1,67 @@
+package com.ar.allRideRental.loadtest;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+// Weighted choice of the next scenario, parsed from "browse=40,availability=25,..."
+final class TrafficMix {
+
+    private final List<String> scenarios = new ArrayList<>();
+    private final int[] cumulativeWeights;
+    private final int totalWeight;
+
+    TrafficMix(String spec) {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        for (String part : spec.split(",")) {
+            String[] pair = part.trim().split("=");
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("Invalid traffic mix entry: " + part);
+            }
+            String scenario = pair[0].trim();
+            if (!RentalTraffic.SCENARIOS.contains(scenario)) {
+                throw new IllegalArgumentException("Unknown scenario '" + scenario + "', expected one of "
+                        + RentalTraffic.SCENARIOS);
+            }
+            int weight = Integer.parseInt(pair[1].trim());
+            if (weight > 0) {
+                weights.put(scenario, weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("Traffic mix has no scenario with a positive weight: " + spec);
+        }
+
+        cumulativeWeights = new int[weights.size()];
+        int sum = 0;
+        for (Map.Entry<String, Integer> entry : weights.entrySet()) {
+            sum += entry.getValue();
+            cumulativeWeights[scenarios.size()] = sum;
+            scenarios.add(entry.getKey());
+        }
+        totalWeight = sum;
+    }
+
+    String pick(SplittableRandom random) {
+        int point = random.nextInt(totalWeight);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (point < cumulativeWeights[i]) {
+                return scenarios.get(i);
+            }
+        }
+        return scenarios.get(scenarios.size() - 1);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder();
+        int previous = 0;
+        for (int i = 0; i < scenarios.size(); i++) {
+            text.append(i == 0 ? "" : ", ").append(scenarios.get(i)).append('=').append(cumulativeWeights[i] - previous);
+            previous = cumulativeWeights[i];
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,293 @@
+package com.ar.allRideRental.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.SplittableRandom;
+
+// Bulk-loads a synthetic fleet, user base and booking history (app.datagen.*) with JDBC batch
+// inserts, so queries and indexes can be exercised at production-like volume on a local database.
+// Runs before the in-memory indexes load (they load on ApplicationReadyEvent, after all runners).
+//
+// Distributions: a few big cities hold most of the fleet, a minority of popular vehicles take most
+// bookings, rentals are mostly 1-3 days booked a few days to weeks ahead, and status follows the
+// dates (past: completed/cancelled, ongoing: active, future: confirmed/pending/cancelled).
+// Bookings of a vehicle are laid out back to back from the booking horizon backwards, so blocking
+// bookings never overlap and the history reaches as far back as the volume requires.
+//
+// For SQL Server add useBulkCopyForBatchInsert=true to the JDBC URL, for MySQL
+// rewriteBatchedStatements=true, otherwise each batch is still one round trip per row.
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+@ConditionalOnProperty(name = "app.datagen.enabled", havingValue = "true")
+public class DataGenerator implements CommandLineRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(DataGenerator.class);
+
+    private static final String[] CITIES = {"Guwahati", "Jorhat", "Sivsagar", "Dibrugarh", "Tinsukia"};
+    private static final int[] CITY_WEIGHTS = {40, 20, 15, 15, 10};
+
+    private static final String[] CAR_MODELS = {"Maruti Swift", "Hyundai Creta", "Toyota Innova", "Mahindra Thar",
+            "Honda City", "Tata Nexon", "Kia Seltos", "Mahindra XUV700"};
+    private static final String[] BIKE_MODELS = {"Royal Enfield Classic 350", "Bajaj Pulsar 220", "KTM 390 Duke",
+            "Honda Activa", "TVS Apache RTR 160", "Yamaha FZ"};
+    private static final String[] FEATURES = {"GPS", "Bluetooth", "Air Conditioning", "ABS", "Sunroof", "4WD",
+            "Helmet Included", "USB Charging", "Cruise Control", "Reverse Camera"};
+    private static final String[] PICKUP_LOCATIONS = {"Airport", "Railway Station", "City Centre", "Bus Stand", "Hotel"};
+    private static final String[] INSURANCE = {"basic", "basic", "basic", "premium", "comprehensive"};
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${app.datagen.vehicles:1000}")
+    private int vehicleCount;
+
+    @Value("${app.datagen.users:100000}")
+    private int userCount;
+
+    @Value("${app.datagen.bookings:1000000}")
+    private int bookingCount;
+
+    // Days after today up to which future bookings are generated
+    @Value("${app.datagen.horizon-days:180}")
+    private int horizonDays;
+
+    @Value("${app.datagen.batch-size:5000}")
+    private int batchSize;
+
+    @Value("${app.datagen.seed:42}")
+    private long seed;
+
+    @Override
+    public void run(String... args) {
+        if (vehicleCount <= 0 || userCount <= 0) {
+            log.warn("app.datagen needs at least one vehicle and one user, nothing generated");
+            return;
+        }
+
+        long started = System.currentTimeMillis();
+        SplittableRandom random = new SplittableRandom(seed);
+
+        Fleet fleet = insertVehicles(random);
+        String[] phones = insertUsers(random);
+        int bookings = insertBookings(random, fleet, phones);
+
+        log.info("Generated {} vehicles, {} users and {} bookings in {} ms",
+                fleet.ids.length, phones.length, bookings, System.currentTimeMillis() - started);
+    }
+
+    private record Fleet(long[] ids, String[] names, int[] dailyRates, double[] popularity) {
+    }
+
+    private Fleet insertVehicles(SplittableRandom random) {
+        String[] names = new String[vehicleCount];
+        String[] types = new String[vehicleCount];
+        int[] dailyRates = new int[vehicleCount];
+        double[] popularity = new double[vehicleCount];
+        String[] cities = new String[vehicleCount];
+        for (int i = 0; i < vehicleCount; i++) {
+            boolean car = random.nextInt(100) < 55;
+            types[i] = car ? "Car" : "Bike";
+            names[i] = (car ? CAR_MODELS[random.nextInt(CAR_MODELS.length)] : BIKE_MODELS[random.nextInt(BIKE_MODELS.length)])
+                    + " #" + (i + 1);
+            dailyRates[i] = car ? 1500 + random.nextInt(66) * 100 : 500 + random.nextInt(31) * 100;
+            cities[i] = CITIES[weighted(random, CITY_WEIGHTS)];
+            // Pareto-like (capped): a small share of the fleet is booked far more often than the rest
+            popularity[i] = Math.min(1 / Math.pow(1 - random.nextDouble(), 0.8), 10);
+        }
+
+        Long maxIdBefore = jdbcTemplate.queryForObject("SELECT MAX(id) FROM vehicles", Long.class);
+        batch("INSERT INTO vehicles (name, type, price, rating, city, image_url, description, is_available, "
+                + "capacity, fuel_type, transmission) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", vehicleCount, (ps, i) -> {
+            boolean car = types[i].equals("Car");
+            ps.setString(1, names[i]);
+            ps.setString(2, types[i]);
+            ps.setString(3, String.format("₹%,d/day", dailyRates[i]));
+            ps.setDouble(4, Math.round((3.5 + random.nextDouble() * 1.5) * 10) / 10.0);
+            ps.setString(5, cities[i]);
+            ps.setString(6, "https://images.example.com/vehicles/" + (i % 50) + ".jpg");
+            ps.setString(7, car ? "Comfortable and well maintained" : "Easy to ride in city traffic");
+            ps.setBoolean(8, random.nextInt(100) < 95);
+            ps.setInt(9, car ? 4 + random.nextInt(4) : 2);
+            ps.setString(10, car && random.nextInt(4) == 0 ? "Diesel" : "Petrol");
+            ps.setString(11, car && random.nextBoolean() ? "Automatic" : "Manual");
+        });
+
+        List<Long> ids = jdbcTemplate.queryForList("SELECT id FROM vehicles WHERE id > ? ORDER BY id", Long.class,
+                maxIdBefore != null ? maxIdBefore : 0L);
+        long[] vehicleIds = ids.stream().mapToLong(Long::longValue).toArray();
+
+        int featuresPerVehicle = 3;
+        batch("INSERT INTO vehicle_features (vehicle_id, feature) VALUES (?, ?)",
+                vehicleIds.length * featuresPerVehicle, (ps, i) -> {
+                    int vehicle = i / featuresPerVehicle;
+                    ps.setLong(1, vehicleIds[vehicle]);
+                    ps.setString(2, FEATURES[(vehicle + (i % featuresPerVehicle) * 3) % FEATURES.length]);
+                });
+        return new Fleet(vehicleIds, names, dailyRates, popularity);
+    }
+
+    // Ten-digit phones from 9000000000 up, continuing after the highest one already present
+    private String[] insertUsers(SplittableRandom random) {
+        String maxPhone = jdbcTemplate.queryForObject(
+                "SELECT MAX(phone) FROM users WHERE phone LIKE '9_________'", String.class);
+        long firstPhone = maxPhone != null ? Long.parseLong(maxPhone) + 1 : 9_000_000_000L;
+        String[] phones = new String[userCount];
+        for (int i = 0; i < userCount; i++) {
+            phones[i] = String.valueOf(firstPhone + i);
+        }
+
+        LocalDate today = LocalDate.now();
+        batch("INSERT INTO users (phone, name, email, dob, join_date, created_at, updated_at) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?)", userCount, (ps, i) -> {
+            LocalDate joined = today.minusDays(random.nextInt(3 * 365));
+            Timestamp createdAt = Timestamp.valueOf(joined.atTime(random.nextInt(24), random.nextInt(60)));
+            ps.setString(1, phones[i]);
+            ps.setString(2, "User " + phones[i].substring(5));
+            ps.setString(3, random.nextInt(100) < 70 ? "user" + phones[i] + "@example.com" : null);
+            ps.setDate(4, Date.valueOf(today.minusYears(18 + random.nextInt(45)).minusDays(random.nextInt(365))));
+            ps.setDate(5, Date.valueOf(joined));
+            ps.setTimestamp(6, createdAt);
+            ps.setTimestamp(7, createdAt);
+        });
+        return phones;
+    }
+
+    private int insertBookings(SplittableRandom random, Fleet fleet, String[] phones) {
+        // Split the requested bookings across vehicles by popularity
+        double totalPopularity = 0;
+        for (double weight : fleet.popularity) {
+            totalPopularity += weight;
+        }
+        int[] perVehicle = new int[fleet.ids.length];
+        int assigned = 0;
+        for (int v = 0; v < perVehicle.length; v++) {
+            perVehicle[v] = (int) (bookingCount * fleet.popularity[v] / totalPopularity);
+            assigned += perVehicle[v];
+        }
+        for (int i = 0; assigned < bookingCount; i++, assigned++) {
+            perVehicle[i % perVehicle.length]++;
+        }
+
+        LocalDate today = LocalDate.now();
+        LocalDateTime now = LocalDateTime.now();
+        // Per-vehicle cursor: bookings are laid out backwards from the horizon
+        int[] vehicleOf = new int[1];
+        int[] remaining = {perVehicle.length == 0 ? 0 : perVehicle[0]};
+        LocalDate[] cursor = {today.plusDays(horizonDays)};
+
+        batch("INSERT INTO bookings (vehicle_id, vehicle_name, customer_phone, customer_name, customer_email, "
+                + "start_date, end_date, pickup_time, dropoff_time, pickup_location, additional_driver, insurance_type, "
+                + "total_amount, status, booking_date, created_at, updated_at) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", bookingCount, (ps, i) -> {
+            while (remaining[0] == 0) {
+                vehicleOf[0]++;
+                remaining[0] = perVehicle[vehicleOf[0]];
+                cursor[0] = today.plusDays(horizonDays);
+            }
+            remaining[0]--;
+            int v = vehicleOf[0];
+
+            // Idle gap before the next rental (shorter for popular vehicles), then 1-3 days mostly
+            int gap = (int) (-Math.log(1 - random.nextDouble()) * 6 / Math.min(fleet.popularity[v], 6));
+            int days = random.nextInt(100) < 75 ? 1 + random.nextInt(3) : 4 + random.nextInt(11);
+            LocalDate end = cursor[0].minusDays(gap);
+            LocalDate start = end.minusDays(days - 1);
+            cursor[0] = start.minusDays(1);
+
+            LocalDateTime createdAt = start.minusDays(random.nextInt(100) < 60 ? random.nextInt(7) : 7 + random.nextInt(50))
+                    .atTime(8 + random.nextInt(14), random.nextInt(60));
+            if (createdAt.isAfter(now)) {
+                createdAt = now.minusMinutes(random.nextInt(60 * 24 * 14));
+            }
+
+            String phone = phones[random.nextInt(phones.length)];
+            ps.setLong(1, fleet.ids[v]);
+            ps.setString(2, fleet.names[v]);
+            ps.setString(3, phone);
+            ps.setString(4, "User " + phone.substring(5));
+            ps.setString(5, null);
+            ps.setDate(6, Date.valueOf(start));
+            ps.setDate(7, Date.valueOf(end));
+            ps.setTime(8, Time.valueOf(LocalTime.of(7 + random.nextInt(5), 0)));
+            ps.setTime(9, Time.valueOf(LocalTime.of(16 + random.nextInt(6), 0)));
+            ps.setString(10, PICKUP_LOCATIONS[random.nextInt(PICKUP_LOCATIONS.length)]);
+            ps.setBoolean(11, random.nextInt(10) == 0);
+            ps.setString(12, INSURANCE[random.nextInt(INSURANCE.length)]);
+            ps.setDouble(13, (double) fleet.dailyRates[v] * days);
+            ps.setString(14, status(random, start, end, today));
+            ps.setTimestamp(15, Timestamp.valueOf(createdAt));
+            ps.setTimestamp(16, Timestamp.valueOf(createdAt));
+            ps.setTimestamp(17, Timestamp.valueOf(end.isBefore(today) ? end.atTime(20, 0) : createdAt));
+        });
+        return bookingCount;
+    }
+
+    private static String status(SplittableRandom random, LocalDate start, LocalDate end, LocalDate today) {
+        int roll = random.nextInt(100);
+        if (end.isBefore(today)) {
+            return roll < 85 ? "completed" : "cancelled";
+        }
+        if (!start.isAfter(today)) {
+            return roll < 92 ? "active" : "cancelled";
+        }
+        return roll < 85 ? "confirmed" : roll < 95 ? "cancelled" : "pending";
+    }
+
+    private static int weighted(SplittableRandom random, int[] weights) {
+        int total = 0;
+        for (int weight : weights) {
+            total += weight;
+        }
+        int point = random.nextInt(total);
+        for (int i = 0; i < weights.length; i++) {
+            point -= weights[i];
+            if (point < 0) {
+                return i;
+            }
+        }
+        return weights.length - 1;
+    }
+
+    @FunctionalInterface
+    private interface RowSetter {
+        void set(PreparedStatement ps, int row) throws SQLException;
+    }
+
+    // Rows are generated while binding, so nothing but the current batch is held in memory
+    private void batch(String sql, int rows, RowSetter setter) {
+        for (int from = 0; from < rows; from += batchSize) {
+            int offset = from;
+            int size = Math.min(batchSize, rows - from);
+            jdbcTemplate.batchUpdate(sql, new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    setter.set(ps, offset + i);
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return size;
+                }
+            });
+        }
+    }
+}
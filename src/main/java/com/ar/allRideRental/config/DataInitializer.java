@@ -6,13 +6,16 @@ import com.ar.allRideRental.repository.CityRepository;
 import com.ar.allRideRental.repository.VehicleRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Component;
 
 import java.util.Arrays;
 import java.util.List;
 
+// Runs before DataGenerator, so the seed vehicles keep ids 1..8
 @Component
+@Order(0)
 public class DataInitializer implements CommandLineRunner {
 
     @Autowired
@@ -197,6 +200,7 @@ public class DataInitializer implements CommandLineRunner {
             jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_dates ON bookings(start_date, end_date)");
             jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_booking_date ON bookings(booking_date)");
             jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_created_at ON bookings(created_at)");
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_customer_created_at ON bookings(customer_phone, created_at)");
 
             // Users index
             jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_user_phone ON users(phone)");
@@ -0,0 +1,206 @@
+package com.ar.allRideRental.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+// Rejects requests to the configured auth endpoints with 429 once the caller's phone number or
+// IP has used up its token bucket, before the controller (and the database) see the request.
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final int MAX_BODY_BYTES = 8 * 1024;
+
+    @Autowired
+    private RateLimitProperties properties;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.isEnabled() || !request.getRequestURI().startsWith("/api/auth/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String path = request.getRequestURI();
+        for (Map.Entry<String, RateLimitProperties.Endpoint> configured : properties.getEndpoints().entrySet()) {
+            RateLimitProperties.Endpoint endpoint = configured.getValue();
+            if (!endpoint.getMethod().equalsIgnoreCase(request.getMethod()) || !pathMatcher.match(endpoint.getPath(), path)) {
+                continue;
+            }
+
+            String name = configured.getKey();
+            long now = System.nanoTime();
+            long waitNanos = consume(name + ":ip:" + clientIp(request), endpoint.getIp(), now);
+
+            String phone = pathMatcher.extractUriTemplateVariables(endpoint.getPath(), path).get("phone");
+            // A body declared larger than the limit can't hold a plain phone lookup; only the IP limit applies
+            if (phone == null && endpoint.getPhone().getCapacity() > 0 && request.getContentLengthLong() <= MAX_BODY_BYTES) {
+                CachedBodyRequest cached = new CachedBodyRequest(request);
+                request = cached;
+                phone = phoneFromBody(cached.body);
+            }
+            if (waitNanos == 0 && phone != null) {
+                waitNanos = consume(name + ":phone:" + phone, endpoint.getPhone(), now);
+            }
+
+            if (waitNanos > 0) {
+                reject(response, waitNanos);
+                return;
+            }
+            break;
+        }
+        chain.doFilter(request, response);
+    }
+
+    // Drops buckets that are idle and full again; they would be recreated identically
+    @Scheduled(fixedDelayString = "${ratelimit.evict-interval-ms:60000}")
+    public void evictIdleBuckets() {
+        long now = System.nanoTime();
+        long idleNanos = TimeUnit.MILLISECONDS.toNanos(properties.getIdleEvictMs());
+        buckets.values().removeIf(bucket -> bucket.isIdle(now, idleNanos));
+    }
+
+    int bucketCount() {
+        return buckets.size();
+    }
+
+    private long consume(String key, RateLimitProperties.Limit limit, long now) {
+        if (limit.getCapacity() <= 0) {
+            return 0;
+        }
+        return buckets.computeIfAbsent(key, k -> new TokenBucket(limit.getCapacity(), limit.getRefillPerMinute(), now))
+                .tryConsume(now);
+    }
+
+    private String clientIp(HttpServletRequest request) {
+        if (properties.isTrustForwardedFor()) {
+            String forwardedFor = request.getHeader("X-Forwarded-For");
+            if (forwardedFor != null && !forwardedFor.isBlank()) {
+                return forwardedFor.split(",")[0].trim();
+            }
+        }
+        return request.getRemoteAddr();
+    }
+
+    // Same field names as the controllers accept
+    private String phoneFromBody(byte[] body) {
+        if (body.length == 0 || body.length > MAX_BODY_BYTES) {
+            return null;
+        }
+        try {
+            JsonNode json = objectMapper.readTree(body);
+            JsonNode phone = json.hasNonNull("phoneNumber") ? json.get("phoneNumber") : json.get("phone");
+            return phone != null && phone.isTextual() ? phone.asText().trim() : null;
+        } catch (IOException e) {
+            // Malformed JSON is the controller's problem; only the IP limit applies
+            return null;
+        }
+    }
+
+    private void reject(HttpServletResponse response, long waitNanos) throws IOException {
+        long retryAfterSeconds = Math.max(1, Math.min(TimeUnit.NANOSECONDS.toSeconds(waitNanos) + 1, 86_400));
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), Map.of(
+                "success", false,
+                "message", "Too many requests. Please try again in " + retryAfterSeconds + " seconds."
+        ));
+    }
+
+    // Reads at most MAX_BODY_BYTES + 1 bytes of the body up front so both the filter and the
+    // controller can consume them; a longer (chunked) body continues from the original stream
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+        private final byte[] body;
+        private final ServletInputStream remainder;
+
+        CachedBodyRequest(HttpServletRequest request) throws IOException {
+            super(request);
+            ServletInputStream original = request.getInputStream();
+            this.body = original.readNBytes(MAX_BODY_BYTES + 1);
+            this.remainder = body.length > MAX_BODY_BYTES ? original : null;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream cached = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return cached.available() == 0 && (remainder == null || remainder.isFinished());
+                }
+
+                @Override
+                public boolean isReady() {
+                    return cached.available() > 0 || remainder == null || remainder.isReady();
+                }
+
+                // The cached bytes are available at once; a remainder is read blocking, as it was started
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    try {
+                        if (!isFinished()) {
+                            listener.onDataAvailable();
+                        }
+                        if (isFinished()) {
+                            listener.onAllDataRead();
+                        }
+                    } catch (IOException e) {
+                        listener.onError(e);
+                    }
+                }
+
+                @Override
+                public int read() throws IOException {
+                    if (cached.available() > 0 || remainder == null) {
+                        return cached.read();
+                    }
+                    return remainder.read();
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) throws IOException {
+                    if (cached.available() > 0 || remainder == null) {
+                        return cached.read(buffer, offset, length);
+                    }
+                    return remainder.read(buffer, offset, length);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            return new BufferedReader(new InputStreamReader(getInputStream(), StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.ar.allRideRental.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// ratelimit.* : token-bucket limits per endpoint, keyed separately by phone number and client IP
+@Data
+@Component
+@ConfigurationProperties(prefix = "ratelimit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    // Use the first X-Forwarded-For hop as the client IP (only behind a trusted load balancer)
+    private boolean trustForwardedFor = false;
+
+    // Buckets unused for this long (and full again) are dropped by the eviction sweep
+    private long idleEvictMs = 600_000;
+
+    private Map<String, Endpoint> endpoints = new LinkedHashMap<>();
+
+    @Data
+    public static class Endpoint {
+        // Ant-style pattern; a {phone} variable is used as the phone key, otherwise the JSON body
+        private String path;
+        private String method = "POST";
+        private Limit phone = new Limit();
+        private Limit ip = new Limit();
+    }
+
+    @Data
+    public static class Limit {
+        // 0 disables this key for the endpoint
+        private int capacity = 0;
+        private double refillPerMinute = 0;
+    }
+}
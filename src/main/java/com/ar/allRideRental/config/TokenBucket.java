@@ -0,0 +1,45 @@
+package com.ar.allRideRental.config;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+// Lock-free token bucket: the (tokens, timestamp) pair is immutable and swapped with CAS
+final class TokenBucket {
+
+    private record State(double tokens, long updatedAtNanos) {
+    }
+
+    private final int capacity;
+    private final double refillPerNano;
+    private final AtomicReference<State> state;
+
+    TokenBucket(int capacity, double refillPerMinute, long nowNanos) {
+        this.capacity = capacity;
+        this.refillPerNano = refillPerMinute / 60_000_000_000.0;
+        this.state = new AtomicReference<>(new State(capacity, nowNanos));
+    }
+
+    // Returns 0 if a token was taken, otherwise the nanoseconds until one becomes available
+    long tryConsume(long nowNanos) {
+        while (true) {
+            State current = state.get();
+            double tokens = refilled(current, nowNanos);
+            if (tokens < 1) {
+                return refillPerNano > 0 ? (long) Math.ceil((1 - tokens) / refillPerNano) : Long.MAX_VALUE;
+            }
+            if (state.compareAndSet(current, new State(tokens - 1, Math.max(nowNanos, current.updatedAtNanos())))) {
+                return 0;
+            }
+        }
+    }
+
+    // Idle and back at capacity, so dropping it cannot change any future decision
+    boolean isIdle(long nowNanos, long idleNanos) {
+        State current = state.get();
+        return nowNanos - current.updatedAtNanos() > idleNanos && refilled(current, nowNanos) >= capacity;
+    }
+
+    private double refilled(State current, long nowNanos) {
+        long elapsed = Math.max(0, nowNanos - current.updatedAtNanos());
+        return Math.min(capacity, current.tokens() + elapsed * refillPerNano);
+    }
+}
@@ -0,0 +1,24 @@
+package com.ar.allRideRental.config;
+
+import com.ar.allRideRental.service.UserLookupCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+// Hit ratio and load latency of the phone -> user lookup cache at /actuator/usercache, next to
+// the metrics rather than on the public auth API
+@Component
+@Endpoint(id = "usercache")
+public class UserCacheEndpoint {
+
+    @Autowired
+    private UserLookupCache userLookupCache;
+
+    @ReadOperation
+    public Map<String, Object> stats() {
+        return userLookupCache.stats();
+    }
+}
@@ -1,12 +1,12 @@
 package com.ar.allRideRental.controller;
 
 import com.ar.allRideRental.dto.BookingResponse;
-import com.ar.allRideRental.model.Booking;
-import com.ar.allRideRental.repository.UserRepository;
 import com.ar.allRideRental.repository.VehicleRepository;
 import com.ar.allRideRental.service.BookingService;
 import com.ar.allRideRental.service.UserService;
 import com.ar.allRideRental.service.OTPService;
+import com.ar.allRideRental.service.OtpDispatcher;
+import com.ar.allRideRental.service.OtpStore;
 import com.ar.allRideRental.model.User;
 import com.ar.allRideRental.service.VehicleService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -17,10 +17,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
 import java.util.Optional;
-import java.util.concurrent.ConcurrentHashMap;
 import java.time.LocalDateTime;
-import java.time.temporal.ChronoUnit;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/auth")
@@ -32,9 +29,6 @@ public class AuthController {
     @Autowired
     private OTPService otpService;
 
-    @Autowired
-    private UserRepository userRepository;
-
     @Autowired
     BookingService bookingService;
 
@@ -44,29 +38,15 @@ public class AuthController {
     @Autowired
     VehicleService vehicleService;
 
-    // Inner class to store OTP with timestamp
-    private static class OTPData {
-        String otp;
-        LocalDateTime createdAt;
-        int attemptCount;
-        boolean sentToMobile;
-
-        OTPData(String otp) {
-            this.otp = otp;
-            this.createdAt = LocalDateTime.now();
-            this.attemptCount = 0;
-            this.sentToMobile = false;
-        }
-    }
+    // Pending OTPs; expired entries are dropped by the store's timing wheel
+    @Autowired
+    private OtpStore otpStore;
 
-    // In-memory storage for OTPs with timestamp
-    private final Map<String, OTPData> otpStorage = new ConcurrentHashMap<>();
+    @Autowired
+    private OtpDispatcher otpDispatcher;
 
     @PostMapping("/send-otp")
     public ResponseEntity<?> sendOtp(@RequestBody Map<String, String> request) {
-        // Clean up expired OTPs first
-        cleanupExpiredOtps();
-
         // Try both possible field names
         String phoneNumber = request.get("phoneNumber");
         if (phoneNumber == null) {
@@ -90,67 +70,23 @@ public class AuthController {
         }
 
         try {
-            // Check if OTP was recently sent
-            OTPData existingOtp = otpStorage.get(phoneNumber);
-            if (existingOtp != null) {
-                long secondsSinceLastOtp = ChronoUnit.SECONDS.between(existingOtp.createdAt, LocalDateTime.now());
-                if (secondsSinceLastOtp < 30) {
-                    return ResponseEntity.badRequest().body(Map.of(
-                            "success", false,
-                            "message", "Please wait " + (30 - secondsSinceLastOtp) + " seconds before requesting new OTP"
-                    ));
-                }
+            // Generate and store a new OTP, unless one was sent recently
+            OtpStore.Issue issue = otpStore.issue(phoneNumber, otpService::generateOTP);
+            if (!issue.issued()) {
+                return ResponseEntity.badRequest().body(Map.of(
+                        "success", false,
+                        "message", "Please wait " + issue.retryAfterSeconds() + " seconds before requesting new OTP"
+                ));
             }
 
-            // Generate OTP
-            String otp = otpService.generateOTP();
-
-            // Store OTP with timestamp
-            OTPData otpData = new OTPData(otp);
-            otpStorage.put(phoneNumber, otpData);
-
-            // Send OTP via SMS
-            try {
-                String smsResult = otpService.sendOTP(phoneNumber, otp).block();
-                otpData.sentToMobile = true;
+            // Send OTP via SMS in the background; the client polls /otp-status for the outcome
+            otpDispatcher.dispatch(issue.entry());
 
-                System.out.println("=== OTP SMS ATTEMPT COMPLETED ===");
-                System.out.println("To: +91 " + phoneNumber);
-                System.out.println("OTP: " + otp);
-                System.out.println("SMS Result: " + smsResult);
-                System.out.println("Timestamp: " + LocalDateTime.now());
-                System.out.println("=== END OTP SMS ===");
-
-                // Parse the response to check if SMS was actually sent
-                if (smsResult != null && smsResult.contains("success")) {
-                    return ResponseEntity.ok(Map.of(
-                            "success", true,
-                            "message", "OTP sent successfully to your mobile number"
-                    ));
-                } else {
-                    // SMS failed but OTP was generated - show in console for development
-                    System.out.println("⚠️ SMS may not have been delivered. OTP for development: " + otp);
-                    return ResponseEntity.ok(Map.of(
-                            "success", true,
-                            "message", "OTP generated. Check console for OTP: " + otp
-                    ));
-                }
-
-            } catch (Exception smsError) {
-                System.err.println("SMS sending failed: " + smsError.getMessage());
-
-                // Fallback: Show OTP in console for development
-                System.out.println("=== OTP FALLBACK (SMS Failed) ===");
-                System.out.println("Phone: +91 " + phoneNumber);
-                System.out.println("OTP: " + otp);
-                System.out.println("SMS Error: " + smsError.getMessage());
-                System.out.println("=== END OTP FALLBACK ===");
-
-                return ResponseEntity.ok(Map.of(
-                        "success", true,
-                        "message", "OTP generated. Check console for OTP: " + otp
-                ));
-            }
+            return ResponseEntity.ok(Map.of(
+                    "success", true,
+                    "message", "OTP is being sent to your mobile number",
+                    "deliveryStatus", issue.entry().getDeliveryStatus().name()
+            ));
 
         } catch (Exception e) {
             e.printStackTrace();
@@ -161,11 +97,25 @@ public class AuthController {
         }
     }
 
+    // Delivery status of the pending OTP for the phone number (PENDING, SENT or FAILED)
+    @GetMapping("/otp-status/{phoneNumber}")
+    public ResponseEntity<?> getOtpStatus(@PathVariable String phoneNumber) {
+        Optional<OtpStore.Entry> otpData = otpStore.get(phoneNumber).filter(entry -> !entry.isExpired());
+        if (otpData.isEmpty()) {
+            return ResponseEntity.badRequest().body(Map.of(
+                    "success", false,
+                    "message", "OTP expired or not found. Please request a new OTP."
+            ));
+        }
+
+        return ResponseEntity.ok(Map.of(
+                "success", true,
+                "deliveryStatus", otpData.get().getDeliveryStatus().name()
+        ));
+    }
+
     @PostMapping("/verify-otp")
     public ResponseEntity<?> verifyOtp(@RequestBody Map<String, String> request) {
-        // Clean up expired OTPs first
-        cleanupExpiredOtps();
-
         // Try both possible field names
         String phoneNumber = request.get("phoneNumber");
         if (phoneNumber == null) {
@@ -189,7 +139,7 @@ public class AuthController {
         }
 
         try {
-            OTPData otpData = otpStorage.get(phoneNumber);
+            OtpStore.Entry otpData = otpStore.get(phoneNumber).orElse(null);
 
             if (otpData == null) {
                 return ResponseEntity.badRequest().body(Map.of(
@@ -198,10 +148,9 @@ public class AuthController {
                 ));
             }
 
-            // Check if OTP is expired (5 minutes)
-            long minutesSinceCreation = ChronoUnit.MINUTES.between(otpData.createdAt, LocalDateTime.now());
-            if (minutesSinceCreation > 5) {
-                otpStorage.remove(phoneNumber);
+            // Check if OTP is expired (the store may not have swept it yet)
+            if (otpData.isExpired()) {
+                otpStore.remove(otpData);
                 return ResponseEntity.badRequest().body(Map.of(
                         "success", false,
                         "message", "OTP has expired. Please request a new OTP."
@@ -209,20 +158,27 @@ public class AuthController {
             }
 
             // Increment attempt count
-            otpData.attemptCount++;
+            int attemptCount = otpStore.recordAttempt(otpData);
+            if (attemptCount == 0) {
+                // Verified, replaced or expired in the meantime (possibly on another instance)
+                return ResponseEntity.badRequest().body(Map.of(
+                        "success", false,
+                        "message", "OTP expired or not found. Please request a new OTP."
+                ));
+            }
 
             // Check if too many attempts
-            if (otpData.attemptCount > 5) {
-                otpStorage.remove(phoneNumber);
+            if (attemptCount > 5) {
+                otpStore.remove(otpData);
                 return ResponseEntity.badRequest().body(Map.of(
                         "success", false,
                         "message", "Too many failed attempts. Please request a new OTP."
                 ));
             }
 
-            if (otpData.otp.equals(otp)) {
+            if (otpData.getOtp().equals(otp)) {
                 // Remove OTP after successful verification
-                otpStorage.remove(phoneNumber);
+                otpStore.remove(otpData);
 
                 System.out.println("=== OTP VERIFIED SUCCESSFULLY ===");
                 System.out.println("Phone: +91 " + phoneNumber);
@@ -236,7 +192,7 @@ public class AuthController {
             } else {
                 return ResponseEntity.badRequest().body(Map.of(
                         "success", false,
-                        "message", "Invalid OTP. Attempts remaining: " + (5 - otpData.attemptCount)
+                        "message", "Invalid OTP. Attempts remaining: " + (5 - attemptCount)
                 ));
             }
         } catch (Exception e) {
@@ -247,29 +203,16 @@ public class AuthController {
         }
     }
 
-    private void cleanupExpiredOtps() {
-        LocalDateTime now = LocalDateTime.now();
-        otpStorage.entrySet().removeIf(entry -> {
-            long minutesSinceCreation = ChronoUnit.MINUTES.between(entry.getValue().createdAt, now);
-            return minutesSinceCreation > 5; // Remove OTPs older than 5 minutes
-        });
-    }
-
     // ... rest of your existing methods (checkUserExists, createUser, etc.) remain the same
     @GetMapping("/check-user/{phoneNumber}")
     public ResponseEntity<?> checkUserExists(@PathVariable String phoneNumber) {
         try {
-            boolean exists = userService.checkUserExists(phoneNumber);
+            // Single (cached) lookup instead of exists + fetch
+            Optional<User> userOptional = userService.findUser(phoneNumber);
 
             Map<String, Object> response = new HashMap<>();
-            response.put("exists", exists);
-
-            if (exists) {
-                Optional<User> userOptional = userService.getUserByPhone(phoneNumber);
-                response.put("user", userOptional.orElse(null));
-            } else {
-                response.put("user", null);
-            }
+            response.put("exists", userOptional.isPresent());
+            response.put("user", userOptional.orElse(null));
 
             return ResponseEntity.ok(response);
         } catch (Exception e) {
@@ -283,17 +226,12 @@ public class AuthController {
     @GetMapping("/users/check/{phoneNumber}")
     public ResponseEntity<?> checkUserExistsAlternative(@PathVariable String phoneNumber) {
         try {
-            boolean exists = userService.checkUserExists(phoneNumber);
+            // Single (cached) lookup instead of exists + fetch
+            Optional<User> userOptional = userService.findUser(phoneNumber);
 
             Map<String, Object> response = new HashMap<>();
-            response.put("exists", exists);
-
-            if (exists) {
-                Optional<User> userOptional = userService.getUserByPhone(phoneNumber);
-                response.put("user", userOptional.orElse(null));
-            } else {
-                response.put("user", null);
-            }
+            response.put("exists", userOptional.isPresent());
+            response.put("user", userOptional.orElse(null));
 
             return ResponseEntity.ok(response);
         } catch (Exception e) {
@@ -382,16 +320,8 @@ public class AuthController {
     @GetMapping("/bookings/{phone}")
     public ResponseEntity<?> getUserBookings(@PathVariable String phone) {
         try {
-            List<Booking> bookings = bookingService.getBookingsByCustomerPhone(phone);
-
-            // Convert to DTOs with vehicle images
-            List<BookingResponse> bookingDTOs = bookings.stream()
-                    .map(booking -> {
-                        // Get vehicle image from vehicle service
-                        String vehicleImageUrl = vehicleService.getVehicleImageUrl(booking.getVehicleId());
-                        return new BookingResponse(booking, vehicleImageUrl);
-                    })
-                    .collect(Collectors.toList());
+            // DTOs with vehicle images, built directly by the query
+            List<BookingResponse> bookingDTOs = bookingService.getBookingResponsesByCustomerPhone(phone);
 
             return ResponseEntity.ok(Map.of(
                     "success", true,
@@ -409,7 +339,7 @@ public class AuthController {
     @GetMapping("/profile/{phone}")
     public ResponseEntity<?> getUserProfile(@PathVariable String phone) {
         try {
-            Optional<User> user = userRepository.findByPhone(phone);
+            Optional<User> user = userService.findUser(phone);
             if (user.isEmpty()) {
                 return ResponseEntity.badRequest().body(Map.of(
                         "success", false,
@@ -417,20 +347,14 @@ public class AuthController {
                 ));
             }
 
-            List<Booking> bookings = bookingService.getBookingsByCustomerPhone(phone);
-
-            // Convert to DTOs with VehicleRepository
-            System.out.println("img : "+bookings.toString());
-            List<BookingResponse> bookingResponses = bookings.stream()
-                    .map(booking -> new BookingResponse(booking, booking.getVehicle().getImageUrl()))
-                    .collect(Collectors.toList());
+            // DTOs with vehicle images, built directly by the query
+            List<BookingResponse> bookingResponses = bookingService.getBookingResponsesByCustomerPhone(phone);
 
-            System.out.println("bookingResponses : "+bookingResponses.toString());
             Map<String, Object> profile = Map.of(
                     "user", user.get(),
                     "bookings", bookingResponses,
-                    "totalBookings", bookings.size(),
-                    "activeBookings", bookings.stream().filter(b ->
+                    "totalBookings", bookingResponses.size(),
+                    "activeBookings", bookingResponses.stream().filter(b ->
                             b.getStatus().equals("confirmed") || b.getStatus().equals("active")).count()
             );
 
@@ -445,4 +369,4 @@ public class AuthController {
             ));
         }
     }
-}
\ No newline at end of file
+}
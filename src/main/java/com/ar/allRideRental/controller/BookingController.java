@@ -1,30 +1,53 @@
 package com.ar.allRideRental.controller;
 
+import com.ar.allRideRental.dto.AvailabilityQuery;
 import com.ar.allRideRental.dto.BookingResponse;
+import com.ar.allRideRental.dto.CursorPage;
 import com.ar.allRideRental.model.Booking;
 import com.ar.allRideRental.model.BookingRequest;
+import com.ar.allRideRental.service.BookingExportService;
 import com.ar.allRideRental.service.BookingService;
 import com.ar.allRideRental.repository.UserRepository;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncTask;
 
+import java.io.OutputStream;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.concurrent.Callable;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/bookings")
 public class BookingController {
 
+    private static final Logger log = LoggerFactory.getLogger(BookingController.class);
+
     @Autowired
     private BookingService bookingService;
 
+    @Autowired
+    private BookingExportService bookingExportService;
+
     @Autowired
     private UserRepository userRepository;
 
+    @Value("${booking.availability.batch.max-size:200}")
+    private int maxAvailabilityBatchSize;
+
+    @Value("${booking.export.timeout:30m}")
+    private Duration exportTimeout;
+
     // Create a new booking
     @PostMapping
     public ResponseEntity<ApiResponse<Booking>> createBooking(@RequestBody BookingRequest bookingRequest) {
@@ -65,6 +88,65 @@ public class BookingController {
         }
     }
 
+    // Get all bookings one page at a time (newest first)
+    @GetMapping("/page")
+    public ResponseEntity<ApiResponse<CursorPage<Booking>>> getBookingsPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        try {
+            CursorPage<Booking> page = bookingService.getBookingsPage(cursor, size);
+            return ResponseEntity.ok(new ApiResponse<>(
+                    true,
+                    "Bookings fetched successfully",
+                    page
+            ));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new ApiResponse<>(false, e.getMessage(), null));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new ApiResponse<>(
+                            false,
+                            "Error fetching bookings: " + e.getMessage(),
+                            null
+                    ));
+        }
+    }
+
+    // Export all bookings as newline-delimited JSON, streamed row by row.
+    // Runs as its own async task so only the export gets the long timeout, not every async request.
+    @GetMapping("/export")
+    public WebAsyncTask<Void> exportBookings(
+            @RequestParam(defaultValue = "false") boolean gzip,
+            HttpServletResponse response) {
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType("application/x-ndjson");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"bookings.ndjson" + (gzip ? ".gz" : "") + "\"");
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+
+        Callable<Void> export = () -> {
+            try {
+                OutputStream outputStream = response.getOutputStream();
+                if (gzip) {
+                    GZIPOutputStream gzipStream = new GZIPOutputStream(outputStream, 8192, true);
+                    bookingExportService.exportNdjson(gzipStream);
+                    gzipStream.finish();
+                } else {
+                    bookingExportService.exportNdjson(outputStream);
+                }
+                response.flushBuffer();
+            } catch (Exception e) {
+                // Headers are already sent at this point, the client sees a truncated stream
+                log.error("Booking export failed", e);
+                throw e;
+            }
+            return null;
+        };
+        return new WebAsyncTask<>(exportTimeout.toMillis(), export);
+    }
+
     // Get bookings by customer phone
     @GetMapping("/customer/{phone}")
     public ResponseEntity<ApiResponse<List<Booking>>> getBookingsByCustomer(@PathVariable String phone) {
@@ -85,16 +167,38 @@ public class BookingController {
         }
     }
 
+    // Get bookings by customer phone one page at a time (newest first)
+    @GetMapping("/customer/{phone}/page")
+    public ResponseEntity<ApiResponse<CursorPage<Booking>>> getBookingsPageByCustomer(
+            @PathVariable String phone,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        try {
+            CursorPage<Booking> page = bookingService.getBookingsPageByCustomerPhone(phone, cursor, size);
+            return ResponseEntity.ok(new ApiResponse<>(
+                    true,
+                    "Customer bookings fetched successfully",
+                    page
+            ));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new ApiResponse<>(false, e.getMessage(), null));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new ApiResponse<>(
+                            false,
+                            "Error fetching customer bookings: " + e.getMessage(),
+                            null
+                    ));
+        }
+    }
+
     // UPDATED: Get bookings by vehicle ID for date blocking - now using BookingResponse
     @GetMapping("/vehicle/{vehicleId}")
     public ResponseEntity<ApiResponse<List<BookingResponse>>> getBookingsByVehicle(@PathVariable Long vehicleId) {
         try {
-            List<Booking> bookings = bookingService.getBookingsByVehicleId(vehicleId);
-
-            // Convert to BookingResponse to include image URLs
-            List<BookingResponse> bookingResponses = bookings.stream()
-                    .map(booking -> new BookingResponse(booking, booking.getVehicle().getImageUrl()))
-                    .collect(Collectors.toList());
+            // BookingResponse (with image URLs) built directly by the query
+            List<BookingResponse> bookingResponses = bookingService.getBookingResponsesByVehicleId(vehicleId);
 
             return ResponseEntity.ok(new ApiResponse<>(
                     true,
@@ -217,6 +321,47 @@ public class BookingController {
         }
     }
 
+    // Check availability of many vehicles / date ranges in one call
+    @PostMapping("/availability/batch")
+    public ResponseEntity<ApiResponse<Map<String, Boolean>>> checkVehicleAvailabilityBatch(
+            @RequestBody List<AvailabilityQuery> queries) {
+        if (queries == null || queries.isEmpty() || queries.size() > maxAvailabilityBatchSize) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new ApiResponse<>(
+                            false,
+                            "Between 1 and " + maxAvailabilityBatchSize + " availability queries are required",
+                            null
+                    ));
+        }
+        for (AvailabilityQuery query : queries) {
+            if (query.getVehicleId() == null || query.getStartDate() == null || query.getEndDate() == null
+                    || query.getEndDate().isBefore(query.getStartDate())) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                        .body(new ApiResponse<>(
+                                false,
+                                "Invalid availability query: " + query.toKey(),
+                                null
+                        ));
+            }
+        }
+
+        try {
+            Map<String, Boolean> results = bookingService.checkAvailability(queries);
+            return ResponseEntity.ok(new ApiResponse<>(
+                    true,
+                    "Availability checked successfully",
+                    results
+            ));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new ApiResponse<>(
+                            false,
+                            "Error checking availability: " + e.getMessage(),
+                            null
+                    ));
+        }
+    }
+
     // Inner class for standardized API response
     public static class ApiResponse<T> {
         private boolean success;
@@ -0,0 +1,63 @@
+package com.ar.allRideRental.controller;
+
+import com.ar.allRideRental.service.CatalogResponseBuffers;
+import com.ar.allRideRental.service.CatalogRevision;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Supplier;
+
+// Shared response handling for the catalog collections: ETag / 304 from the catalog
+// revision, and (when catalog.preserialized.enabled) bodies written from pre-built buffers.
+@Component
+public class CatalogResponses {
+
+    @Autowired
+    private CatalogRevision catalogRevision;
+
+    @Autowired
+    private CatalogResponseBuffers responseBuffers;
+
+    @Value("${catalog.preserialized.enabled:true}")
+    private boolean preserialized;
+
+    public ResponseEntity<?> respond(String view, String ifNoneMatch, String acceptEncoding, Supplier<?> loader) {
+        String etag = catalogRevision.etag(view);
+        // The gzip body is a different representation, so it gets its own strong ETag
+        String gzipEtag = etag.substring(0, etag.length() - 1) + "-gzip\"";
+        if (CatalogRevision.matches(ifNoneMatch, etag) || CatalogRevision.matches(ifNoneMatch, gzipEtag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(CatalogRevision.matches(ifNoneMatch, etag) ? etag : gzipEtag)
+                    .cacheControl(CacheControl.noCache())
+                    .build();
+        }
+
+        if (!preserialized) {
+            return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache()).body(loader.get());
+        }
+
+        CatalogResponseBuffers.SerializedView serialized = responseBuffers.get(view, loader);
+        // The buffer may be newer than the revision read above; tag it with its own revision
+        String bufferEtag = "\"" + view + "-" + serialized.revision() + "\"";
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .cacheControl(CacheControl.noCache())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (acceptsGzip(acceptEncoding)) {
+            return response.eTag(bufferEtag.substring(0, bufferEtag.length() - 1) + "-gzip\"")
+                    .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                    .body(serialized.gzip());
+        }
+        return response.eTag(bufferEtag).body(serialized.json());
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        return acceptEncoding != null && acceptEncoding.contains("gzip") && !acceptEncoding.contains("gzip;q=0");
+    }
+}
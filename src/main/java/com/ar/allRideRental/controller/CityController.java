@@ -3,9 +3,9 @@ package com.ar.allRideRental.controller;
 import com.ar.allRideRental.model.City;
 import com.ar.allRideRental.service.CityService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import java.util.List;
 
 @RestController
 @RequestMapping("/api/cities")
@@ -13,11 +13,15 @@ public class CityController {
     
     @Autowired
     private CityService cityService;
+
+    @Autowired
+    private CatalogResponses catalogResponses;
     
     @GetMapping
-    public ResponseEntity<List<City>> getAllCities() {
-        List<City> cities = cityService.getAllCities();
-        return ResponseEntity.ok(cities);
+    public ResponseEntity<?> getAllCities(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return catalogResponses.respond("cities", ifNoneMatch, acceptEncoding, cityService::getAllCities);
     }
     
     @GetMapping("/{id}")
@@ -1,10 +1,14 @@
 package com.ar.allRideRental.controller;
 
+import com.ar.allRideRental.dto.VehicleSearchQuery;
+import com.ar.allRideRental.dto.VehicleSearchResult;
 import com.ar.allRideRental.model.Vehicle;
 import com.ar.allRideRental.service.VehicleService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
 
@@ -15,11 +19,18 @@ public class VehicleController {
     
     @Autowired
     private VehicleService vehicleService;
+
+    @Autowired
+    private CatalogResponses catalogResponses;
     
+    // Conditional GET: If-None-Match with the current catalog ETag is answered with 304
+    // before the service (and Jackson) is touched; otherwise the body comes from the
+    // pre-serialized (and pre-gzipped) catalog buffer
     @GetMapping
-    public ResponseEntity<List<Vehicle>> getAllVehicles() {
-        List<Vehicle> vehicles = vehicleService.getAllVehicles();
-        return ResponseEntity.ok(vehicles);
+    public ResponseEntity<?> getAllVehicles(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return catalogResponses.respond("vehicles", ifNoneMatch, acceptEncoding, vehicleService::getAllVehicles);
     }
     
     @GetMapping("/city/{city}")
@@ -42,25 +53,59 @@ public class VehicleController {
         return ResponseEntity.ok(vehicles);
     }
     
+    // Vehicles free for the whole date range, replaces one /api/bookings/availability call per vehicle
+    @GetMapping("/available")
+    public ResponseEntity<List<Vehicle>> getVehiclesAvailableBetween(
+            @RequestParam String city,
+            @RequestParam(required = false) String type,
+            @RequestParam LocalDate startDate,
+            @RequestParam LocalDate endDate) {
+        if (endDate.isBefore(startDate)) {
+            return ResponseEntity.badRequest().build();
+        }
+        List<Vehicle> vehicles = vehicleService.getVehiclesAvailableBetween(city, type, startDate, endDate);
+        return ResponseEntity.ok(vehicles);
+    }
+    
+    // Faceted search, e.g. /search?city=Guwahati,Jorhat&type=Car&features=4WD&minRating=4.5
+    @GetMapping("/search")
+    public ResponseEntity<VehicleSearchResult> searchVehicles(VehicleSearchQuery query) {
+        return ResponseEntity.ok(vehicleService.searchVehicles(query));
+    }
+    
     @GetMapping("/cities")
-    public ResponseEntity<List<String>> getAvailableCities() {
-        List<String> cities = vehicleService.getAvailableCities();
-        return ResponseEntity.ok(cities);
+    public ResponseEntity<?> getAvailableCities(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return catalogResponses.respond("vehicle-cities", ifNoneMatch, acceptEncoding, vehicleService::getAvailableCities);
     }
     
     @GetMapping("/counts")
     public ResponseEntity<Map<String, Object>> getVehicleCounts() {
-        long totalCars = vehicleService.getVehicleCountByType("Car");
-        long totalBikes = vehicleService.getVehicleCountByType("Bike");
-        long totalVehicles = totalCars + totalBikes;
+        Map<String, Object> counts = vehicleService.getVehicleCountMatrix();
+        @SuppressWarnings("unchecked")
+        Map<String, Long> byType = (Map<String, Long>) counts.get("byType");
         
         return ResponseEntity.ok(Map.of(
-            "totalVehicles", totalVehicles,
-            "cars", totalCars,
-            "bikes", totalBikes
+            "totalVehicles", counts.get("totalVehicles"),
+            "cars", byType.getOrDefault("Car", 0L),
+            "bikes", byType.getOrDefault("Bike", 0L),
+            "byType", byType
         ));
     }
     
+    // Counts for every city x type combination (including types added later) in one query
+    @GetMapping("/counts/matrix")
+    public ResponseEntity<Map<String, Object>> getVehicleCountMatrix() {
+        return ResponseEntity.ok(vehicleService.getVehicleCountMatrix());
+    }
+    
+    // Hit/miss/eviction counters of the catalog cache, for sizing vehicle.cache.max-entries
+    @GetMapping("/cache/stats")
+    public ResponseEntity<Map<String, Object>> getCatalogCacheStats() {
+        return ResponseEntity.ok(vehicleService.getCatalogCacheStats());
+    }
+    
     @GetMapping("/{id}")
     public ResponseEntity<Vehicle> getVehicleById(@PathVariable Long id) {
         return vehicleService.getVehicleById(id)
@@ -0,0 +1,16 @@
+package com.ar.allRideRental.dto;
+
+import lombok.Data;
+import java.time.LocalDate;
+
+@Data
+public class AvailabilityQuery {
+    private Long vehicleId;
+    private LocalDate startDate;
+    private LocalDate endDate;
+
+    // Key of this query in the batch availability response
+    public String toKey() {
+        return vehicleId + ":" + startDate + ":" + endDate;
+    }
+}
@@ -1,12 +1,14 @@
 package com.ar.allRideRental.dto;
 
 import com.ar.allRideRental.model.Booking;
+import lombok.AllArgsConstructor;
 import lombok.Data;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.time.LocalDateTime;
 
 @Data
+@AllArgsConstructor // used by the JPQL constructor expressions in BookingRepository
 public class BookingResponse {
     private Long id;
     private Long vehicleId;
@@ -0,0 +1,19 @@
+package com.ar.allRideRental.dto;
+
+import lombok.Data;
+import java.util.List;
+
+// Values inside one field are OR-ed, fields are AND-ed. Features are OR-ed unless
+// matchAllFeatures is set, in which case a vehicle must have every listed feature.
+@Data
+public class VehicleSearchQuery {
+    private List<String> city;
+    private List<String> type;
+    private List<String> fuelType;
+    private List<String> transmission;
+    private List<Integer> capacity;
+    private List<String> features;
+    private boolean matchAllFeatures;
+    private Double minRating;
+    private Double maxRating;
+}
@@ -0,0 +1,16 @@
+package com.ar.allRideRental.dto;
+
+import com.ar.allRideRental.model.Vehicle;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@AllArgsConstructor
+public class VehicleSearchResult {
+    private List<Vehicle> vehicles;
+    private int total;
+    // facet field -> value -> number of matching vehicles with that value
+    private Map<String, Map<String, Integer>> facets;
+}
@@ -2,6 +2,7 @@ package com.ar.allRideRental.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Data;
+import lombok.ToString;
 import jakarta.persistence.*;
 import java.time.LocalDate;
 import java.time.LocalTime;
@@ -22,6 +23,7 @@ public class Booking {
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "vehicle_id", insertable = false, updatable = false)
     @JsonIgnore
+    @ToString.Exclude // toString() must not trigger a lazy vehicle load per booking
     private Vehicle vehicle;
 
     @Column(name = "vehicle_name", nullable = false)
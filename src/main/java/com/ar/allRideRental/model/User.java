@@ -43,6 +43,18 @@ public class User {
         this.dob = dob;
     }
 
+    // Detached copy, used by the user lookup cache so requests never share a managed instance
+    public User(User other) {
+        this.id = other.id;
+        this.phone = other.phone;
+        this.name = other.name;
+        this.email = other.email;
+        this.dob = other.dob;
+        this.joinDate = other.joinDate;
+        this.createdAt = other.createdAt;
+        this.updatedAt = other.updatedAt;
+    }
+
     // Getters and Setters
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
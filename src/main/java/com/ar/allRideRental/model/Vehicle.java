@@ -3,6 +3,7 @@ package com.ar.allRideRental.model;
 import jakarta.persistence.*;
 import java.util.List;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import org.hibernate.annotations.BatchSize;
 
 @Entity
 @Table(name = "vehicles")
@@ -20,7 +21,9 @@ public class Vehicle {
     @Column(nullable = false)
     private String price;
     
+    // Lazy features of up to 100 loaded vehicles are fetched together with one IN query
     @ElementCollection
+    @BatchSize(size = 100)
     @CollectionTable(name = "vehicle_features", joinColumns = @JoinColumn(name = "vehicle_id"))
     @Column(name = "feature")
     private List<String> features;
@@ -57,6 +60,28 @@ public class Vehicle {
         this.imageUrl = imageUrl;
     }
     
+    // Detached copy (features copied into an immutable list), used for cached catalog snapshots
+    public Vehicle(Vehicle other) {
+        this(other, other.features);
+    }
+    
+    // Detached copy with features supplied by the caller, so the lazy collection is never touched
+    public Vehicle(Vehicle other, List<String> features) {
+        this.id = other.id;
+        this.name = other.name;
+        this.type = other.type;
+        this.price = other.price;
+        this.features = features != null ? List.copyOf(features) : null;
+        this.rating = other.rating;
+        this.city = other.city;
+        this.imageUrl = other.imageUrl;
+        this.description = other.description;
+        this.isAvailable = other.isAvailable;
+        this.capacity = other.capacity;
+        this.fuelType = other.fuelType;
+        this.transmission = other.transmission;
+    }
+    
     // Getters and Setters
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
@@ -1,14 +1,23 @@
 package com.ar.allRideRental.repository;
 
+import com.ar.allRideRental.dto.BookingResponse;
 import com.ar.allRideRental.model.Booking;
 import com.ar.allRideRental.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface BookingRepository extends JpaRepository<Booking, Long> {
@@ -17,12 +26,61 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
     List<Booking> findAllByOrderByCreatedAtDesc();
     Long countByStatus(String status);
 
+    // Keyset pagination on (createdAt, id): first page, then everything after the cursor row
+    List<Booking> findAllByOrderByCreatedAtDescIdDesc(Pageable pageable);
+
+    @Query("SELECT b FROM Booking b WHERE b.createdAt < :createdAt " +
+            "OR (b.createdAt = :createdAt AND b.id < :id) " +
+            "ORDER BY b.createdAt DESC, b.id DESC")
+    List<Booking> findPageAfter(@Param("createdAt") LocalDateTime createdAt,
+                                @Param("id") Long id,
+                                Pageable pageable);
+
+    List<Booking> findByCustomerPhoneOrderByCreatedAtDescIdDesc(String customerPhone, Pageable pageable);
+
+    @Query("SELECT b FROM Booking b WHERE b.customerPhone = :customerPhone " +
+            "AND (b.createdAt < :createdAt OR (b.createdAt = :createdAt AND b.id < :id)) " +
+            "ORDER BY b.createdAt DESC, b.id DESC")
+    List<Booking> findCustomerPageAfter(@Param("customerPhone") String customerPhone,
+                                        @Param("createdAt") LocalDateTime createdAt,
+                                        @Param("id") Long id,
+                                        Pageable pageable);
+
+    // Streams every booking for the NDJSON export; must be consumed inside a transaction.
+    // On MySQL add useCursorFetch=true to the JDBC URL so the fetch size is honoured.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT b FROM Booking b ORDER BY b.createdAt DESC, b.id DESC")
+    Stream<Booking> streamAllForExport();
+
+    // Read-only BookingResponse rows built by the query itself (vehicle image joined in),
+    // so list endpoints don't hydrate and track Booking entities
+    String BOOKING_RESPONSE_SELECT = "SELECT new com.ar.allRideRental.dto.BookingResponse(" +
+            "b.id, b.vehicleId, b.vehicleName, COALESCE(v.imageUrl, '/images/default-vehicle.jpg'), " +
+            "b.customerPhone, b.customerName, b.customerEmail, b.startDate, b.endDate, " +
+            "b.pickupTime, b.dropoffTime, b.pickupLocation, b.additionalDriver, b.insurance, " +
+            "b.totalAmount, b.status, b.bookingDate, b.createdAt, b.updatedAt) " +
+            "FROM Booking b LEFT JOIN b.vehicle v ";
+
+    @Query(BOOKING_RESPONSE_SELECT + "WHERE b.customerPhone = :customerPhone ORDER BY b.createdAt DESC")
+    List<BookingResponse> findResponsesByCustomerPhone(@Param("customerPhone") String customerPhone);
+
+    @Query(BOOKING_RESPONSE_SELECT + "WHERE b.vehicleId = :vehicleId AND b.status = :status")
+    List<BookingResponse> findResponsesByVehicleIdAndStatus(@Param("vehicleId") Long vehicleId,
+                                                            @Param("status") String status);
+
     // NEW: Find bookings by vehicle ID
     List<Booking> findByVehicleId(Long vehicleId);
 
     // NEW: Find confirmed bookings by vehicle ID for date blocking
     List<Booking> findByVehicleIdAndStatus(Long vehicleId, String status);
 
+    // Only the vehicle id, so the booking itself isn't loaded into the persistence context early
+    @Query("SELECT b.vehicleId FROM Booking b WHERE b.id = :id")
+    Optional<Long> findVehicleIdById(@Param("id") Long id);
+
     // Find overlapping bookings for a vehicle
     @Query("SELECT b FROM Booking b WHERE b.vehicleId = :vehicleId " +
             "AND b.status IN ('confirmed', 'active') " +
@@ -33,6 +91,30 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
                                           @Param("startDate") LocalDate startDate,
                                           @Param("endDate") LocalDate endDate);
 
+    // Vehicles among the given ones that have a confirmed/active booking overlapping the range
+    @Query("SELECT DISTINCT b.vehicleId FROM Booking b WHERE b.vehicleId IN :vehicleIds " +
+            "AND b.status IN ('confirmed', 'active') " +
+            "AND b.startDate <= :endDate AND b.endDate >= :startDate")
+    List<Long> findBookedVehicleIds(@Param("vehicleIds") Collection<Long> vehicleIds,
+                                    @Param("startDate") LocalDate startDate,
+                                    @Param("endDate") LocalDate endDate);
+
+    // Confirmed/active (vehicleId, startDate, endDate) rows of several vehicles touching a date window
+    @Query("SELECT b.vehicleId, b.startDate, b.endDate FROM Booking b WHERE b.vehicleId IN :vehicleIds " +
+            "AND b.status IN ('confirmed', 'active') " +
+            "AND b.startDate <= :windowEnd AND b.endDate >= :windowStart")
+    List<Object[]> findBookingIntervalsInWindow(@Param("vehicleIds") Collection<Long> vehicleIds,
+                                                @Param("windowStart") LocalDate windowStart,
+                                                @Param("windowEnd") LocalDate windowEnd);
+
+    // Lightweight rows (id, vehicleId, startDate, endDate) for the in-memory availability index
+    @Query("SELECT b.id, b.vehicleId, b.startDate, b.endDate FROM Booking b WHERE b.status IN :statuses")
+    List<Object[]> findBookingIntervalsByStatusIn(@Param("statuses") Collection<String> statuses);
+
+    // (status, count, sum of totalAmount) for every status in one pass, used to reconcile BookingStatistics
+    @Query("SELECT b.status, COUNT(b), SUM(b.totalAmount) FROM Booking b GROUP BY b.status")
+    List<Object[]> countAndSumByStatus();
+
     // Get total revenue from completed bookings
     @Query("SELECT SUM(b.totalAmount) FROM Booking b WHERE b.status = 'completed'")
     Double getTotalRevenue();
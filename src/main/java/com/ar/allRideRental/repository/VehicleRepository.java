@@ -1,9 +1,14 @@
 package com.ar.allRideRental.repository;
 
 import com.ar.allRideRental.model.Vehicle;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,11 +19,27 @@ public interface VehicleRepository extends JpaRepository<Vehicle, Long> {
     List<Vehicle> findByTypeAndIsAvailableTrue(String type);
     List<Vehicle> findByCityAndTypeAndIsAvailableTrue(String city, String type);
     
+    // Available vehicles with their features fetched in the same select
+    @EntityGraph(attributePaths = "features")
+    @Query("SELECT v FROM Vehicle v WHERE v.isAvailable = true")
+    List<Vehicle> findAvailableWithFeatures();
+    
+    // (vehicleId, feature) rows for the given vehicles, used to assemble catalog snapshots
+    @Query("SELECT v.id, f FROM Vehicle v JOIN v.features f WHERE v.id IN :vehicleIds")
+    List<Object[]> findFeaturesByVehicleIdIn(@Param("vehicleIds") Collection<Long> vehicleIds);
+    
     @Query("SELECT DISTINCT v.city FROM Vehicle v WHERE v.isAvailable = true")
     List<String> findDistinctCities();
     
-    long countByTypeAndIsAvailableTrue(String type);
-    long countByCityAndIsAvailableTrue(String city);
-    long countByCityAndTypeAndIsAvailableTrue(String city, String type);
+    // (city, type, count) for every city/type combination in one pass
+    @Query("SELECT v.city, v.type, COUNT(v) FROM Vehicle v WHERE v.isAvailable = true GROUP BY v.city, v.type")
+    List<Object[]> countAvailableByCityAndType();
+
     Optional<Vehicle> findById(Long id);
+
+    // Row lock held until the transaction ends (SELECT ... FOR UPDATE); serializes booking
+    // admission for the vehicle across application instances
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT v FROM Vehicle v WHERE v.id = :id")
+    Optional<Vehicle> findByIdForUpdate(@Param("id") Long id);
 }
\ No newline at end of file
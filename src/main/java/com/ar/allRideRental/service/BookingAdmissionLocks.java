@@ -0,0 +1,44 @@
+package com.ar.allRideRental.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+// Serializes booking admission per vehicle with a fixed array of striped locks, so the
+// overlap check and the insert can't interleave for the same vehicle while bookings for
+// different vehicles (almost always on different stripes) still run in parallel.
+// The locks are per JVM: across instances, admission and status changes also lock the vehicle
+// row, and these locks just keep local requests off it.
+@Component
+public class BookingAdmissionLocks {
+
+    private final ReentrantLock[] stripes;
+    private final int mask;
+
+    public BookingAdmissionLocks(@Value("${booking.admission.lock-stripes:64}") int stripeCount) {
+        // Round up to a power of two so the stripe can be picked with a mask
+        int size = Integer.highestOneBit(Math.max(1, stripeCount - 1)) << 1;
+        this.stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.mask = size - 1;
+    }
+
+    public <T> T withVehicleLock(Long vehicleId, Supplier<T> action) {
+        ReentrantLock lock = stripeFor(vehicleId);
+        lock.lock();
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private ReentrantLock stripeFor(Long vehicleId) {
+        int hash = vehicleId != null ? vehicleId.hashCode() : 0;
+        return stripes[(hash ^ (hash >>> 16)) & mask];
+    }
+}
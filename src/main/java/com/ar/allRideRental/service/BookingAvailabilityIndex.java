@@ -0,0 +1,336 @@
+package com.ar.allRideRental.service;
+
+import com.ar.allRideRental.model.Booking;
+import com.ar.allRideRental.repository.BookingRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// In-memory copy of the confirmed/active booking intervals of every vehicle, so that
+// availability checks don't have to run the overlap query against the database.
+@Component
+public class BookingAvailabilityIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(BookingAvailabilityIndex.class);
+
+    // Only these statuses block a vehicle (same as BookingRepository.findOverlappingBookings)
+    public static final Set<String> BLOCKING_STATUSES = Set.of("confirmed", "active");
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Value("${booking.availability.index.enabled:true}")
+    private boolean enabled = true;
+
+    // Days from today covered by the per-vehicle occupancy bitmaps
+    @Value("${booking.availability.bitmap.horizon-days:365}")
+    private int horizonDays = 365;
+
+    private final Map<Long, VehicleIntervals> intervalsByVehicle = new ConcurrentHashMap<>();
+
+    // Writes share the read lock, the startup load takes the write lock so no update is lost
+    private final ReadWriteLock loadLock = new ReentrantReadWriteLock();
+
+    private volatile boolean ready = false;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!enabled) {
+            log.info("Booking availability index disabled, using database overlap queries");
+            return;
+        }
+
+        loadLock.writeLock().lock();
+        try {
+            intervalsByVehicle.clear();
+            List<Object[]> rows = bookingRepository.findBookingIntervalsByStatusIn(BLOCKING_STATUSES);
+            // Built once per vehicle; inserting row by row would copy the arrays for every booking
+            Map<Long, List<Object[]>> rowsByVehicle = new HashMap<>();
+            for (Object[] row : rows) {
+                rowsByVehicle.computeIfAbsent((Long) row[1], id -> new ArrayList<>()).add(row);
+            }
+            rowsByVehicle.forEach((vehicleId, vehicleRows) -> {
+                int n = vehicleRows.size();
+                long[] ids = new long[n];
+                long[] starts = new long[n];
+                long[] ends = new long[n];
+                for (int i = 0; i < n; i++) {
+                    Object[] row = vehicleRows.get(i);
+                    ids[i] = (Long) row[0];
+                    starts[i] = ((LocalDate) row[2]).toEpochDay();
+                    ends[i] = ((LocalDate) row[3]).toEpochDay();
+                }
+                intervalsByVehicle.put(vehicleId, VehicleIntervals.of(ids, starts, ends));
+            });
+            ready = true;
+            log.info("Booking availability index loaded: {} bookings, {} vehicles", rows.size(), intervalsByVehicle.size());
+        } catch (Exception e) {
+            log.error("Error loading booking availability index", e);
+        } finally {
+            loadLock.writeLock().unlock();
+        }
+    }
+
+    // False until the startup load has finished; callers should query the database until then
+    public boolean isReady() {
+        return ready;
+    }
+
+    public boolean hasOverlap(Long vehicleId, LocalDate startDate, LocalDate endDate) {
+        VehicleIntervals intervals = intervalsByVehicle.get(vehicleId);
+        return intervals != null && intervals.overlaps(startDate.toEpochDay(), endDate.toEpochDay());
+    }
+
+    // True if the vehicle is free on every day of the range. Ranges inside the rolling horizon
+    // are answered from the vehicle's day bitmap, anything else from the sorted intervals.
+    public boolean isFree(Long vehicleId, LocalDate startDate, LocalDate endDate) {
+        VehicleIntervals intervals = intervalsByVehicle.get(vehicleId);
+        if (intervals == null) {
+            return true;
+        }
+
+        long startDay = startDate.toEpochDay();
+        long endDay = endDate.toEpochDay();
+        long today = LocalDate.now().toEpochDay();
+        if (startDay >= today && endDay < today + horizonDays) {
+            return !intervals.bitmap(today, horizonDays).anySet(startDay, endDay);
+        }
+        return !intervals.overlaps(startDay, endDay);
+    }
+
+    public List<Long> filterFree(Collection<Long> vehicleIds, LocalDate startDate, LocalDate endDate) {
+        List<Long> freeVehicleIds = new ArrayList<>();
+        for (Long vehicleId : vehicleIds) {
+            if (isFree(vehicleId, startDate, endDate)) {
+                freeVehicleIds.add(vehicleId);
+            }
+        }
+        return freeVehicleIds;
+    }
+
+    // Call with the saved booking after every create / status change / cancel
+    public void update(Booking booking) {
+        if (booking.getId() == null || booking.getVehicleId() == null) {
+            return;
+        }
+
+        loadLock.readLock().lock();
+        try {
+            if (BLOCKING_STATUSES.contains(booking.getStatus())) {
+                add(booking.getId(), booking.getVehicleId(), booking.getStartDate(), booking.getEndDate());
+            } else {
+                remove(booking.getId(), booking.getVehicleId());
+            }
+        } finally {
+            loadLock.readLock().unlock();
+        }
+    }
+
+    private void add(Long bookingId, Long vehicleId, LocalDate startDate, LocalDate endDate) {
+        intervalsByVehicle.compute(vehicleId, (id, intervals) ->
+                (intervals != null ? intervals : VehicleIntervals.EMPTY)
+                        .with(bookingId, startDate.toEpochDay(), endDate.toEpochDay()));
+    }
+
+    private void remove(Long bookingId, Long vehicleId) {
+        intervalsByVehicle.computeIfPresent(vehicleId, (id, intervals) -> {
+            VehicleIntervals remaining = intervals.without(bookingId);
+            return remaining.isEmpty() ? null : remaining;
+        });
+    }
+
+    // Immutable, sorted by start day. maxEnds[i] is the latest end day among intervals 0..i,
+    // which makes the overlap test a single binary search even if intervals overlap each other.
+    static final class VehicleIntervals {
+        static final VehicleIntervals EMPTY =
+                new VehicleIntervals(new long[0], new long[0], new long[0]);
+
+        private final long[] bookingIds;
+        private final long[] starts;
+        private final long[] ends;
+        private final long[] maxEnds;
+
+        // Built on first use for the current horizon, rebuilt when the horizon rolls over
+        private volatile DayBitmap bitmap;
+
+        private VehicleIntervals(long[] bookingIds, long[] starts, long[] ends) {
+            this.bookingIds = bookingIds;
+            this.starts = starts;
+            this.ends = ends;
+            this.maxEnds = new long[ends.length];
+            long max = Long.MIN_VALUE;
+            for (int i = 0; i < ends.length; i++) {
+                max = Math.max(max, ends[i]);
+                maxEnds[i] = max;
+            }
+        }
+
+        // Any order; sorted by start day here
+        static VehicleIntervals of(long[] bookingIds, long[] starts, long[] ends) {
+            Integer[] order = new Integer[starts.length];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> Long.compare(starts[a], starts[b]));
+
+            long[] sortedIds = new long[order.length];
+            long[] sortedStarts = new long[order.length];
+            long[] sortedEnds = new long[order.length];
+            for (int i = 0; i < order.length; i++) {
+                sortedIds[i] = bookingIds[order[i]];
+                sortedStarts[i] = starts[order[i]];
+                sortedEnds[i] = ends[order[i]];
+            }
+            return new VehicleIntervals(sortedIds, sortedStarts, sortedEnds);
+        }
+
+        boolean isEmpty() {
+            return bookingIds.length == 0;
+        }
+
+        int size() {
+            return bookingIds.length;
+        }
+
+        // Inclusive on both ends, like the BETWEEN checks in the JPQL query
+        boolean overlaps(long startDay, long endDay) {
+            int last = lastStartAtOrBefore(endDay);
+            return last >= 0 && maxEnds[last] >= startDay;
+        }
+
+        DayBitmap bitmap(long firstDay, int days) {
+            DayBitmap current = bitmap;
+            if (current == null || current.firstDay != firstDay || current.days != days) {
+                current = DayBitmap.of(this, firstDay, days);
+                bitmap = current;
+            }
+            return current;
+        }
+
+        VehicleIntervals with(long bookingId, long startDay, long endDay) {
+            VehicleIntervals base = without(bookingId);
+            int n = base.bookingIds.length;
+            int pos = base.lastStartAtOrBefore(startDay) + 1;
+
+            long[] ids = new long[n + 1];
+            long[] newStarts = new long[n + 1];
+            long[] newEnds = new long[n + 1];
+            System.arraycopy(base.bookingIds, 0, ids, 0, pos);
+            System.arraycopy(base.starts, 0, newStarts, 0, pos);
+            System.arraycopy(base.ends, 0, newEnds, 0, pos);
+            ids[pos] = bookingId;
+            newStarts[pos] = startDay;
+            newEnds[pos] = endDay;
+            System.arraycopy(base.bookingIds, pos, ids, pos + 1, n - pos);
+            System.arraycopy(base.starts, pos, newStarts, pos + 1, n - pos);
+            System.arraycopy(base.ends, pos, newEnds, pos + 1, n - pos);
+            return new VehicleIntervals(ids, newStarts, newEnds);
+        }
+
+        VehicleIntervals without(long bookingId) {
+            for (int i = 0; i < bookingIds.length; i++) {
+                if (bookingIds[i] == bookingId) {
+                    return new VehicleIntervals(removeAt(bookingIds, i), removeAt(starts, i), removeAt(ends, i));
+                }
+            }
+            return this;
+        }
+
+        private int lastStartAtOrBefore(long day) {
+            int low = 0;
+            int high = starts.length - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (starts[mid] <= day) {
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            return high;
+        }
+
+        private static long[] removeAt(long[] values, int index) {
+            long[] result = Arrays.copyOf(values, values.length - 1);
+            System.arraycopy(values, index + 1, result, index, values.length - index - 1);
+            return result;
+        }
+    }
+
+    // One bit per day starting at firstDay, so a range test is a handful of word ANDs
+    static final class DayBitmap {
+        final long firstDay;
+        final int days;
+        private final long[] words;
+
+        private DayBitmap(long firstDay, int days) {
+            this.firstDay = firstDay;
+            this.days = days;
+            this.words = new long[(days + 63) >>> 6];
+        }
+
+        static DayBitmap of(VehicleIntervals intervals, long firstDay, int days) {
+            DayBitmap bitmap = new DayBitmap(firstDay, days);
+            for (int i = 0; i < intervals.starts.length; i++) {
+                long from = Math.max(intervals.starts[i], firstDay);
+                long to = Math.min(intervals.ends[i], firstDay + days - 1);
+                if (from <= to) {
+                    bitmap.set((int) (from - firstDay), (int) (to - firstDay));
+                }
+            }
+            return bitmap;
+        }
+
+        // Both days must lie inside the bitmap
+        boolean anySet(long startDay, long endDay) {
+            int from = (int) (startDay - firstDay);
+            int to = (int) (endDay - firstDay);
+            int firstWord = from >>> 6;
+            int lastWord = to >>> 6;
+            for (int w = firstWord; w <= lastWord; w++) {
+                long mask = -1L;
+                if (w == firstWord) {
+                    mask &= -1L << (from & 63);
+                }
+                if (w == lastWord) {
+                    mask &= -1L >>> (63 - (to & 63));
+                }
+                if ((words[w] & mask) != 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private void set(int from, int to) {
+            int firstWord = from >>> 6;
+            int lastWord = to >>> 6;
+            for (int w = firstWord; w <= lastWord; w++) {
+                long mask = -1L;
+                if (w == firstWord) {
+                    mask &= -1L << (from & 63);
+                }
+                if (w == lastWord) {
+                    mask &= -1L >>> (63 - (to & 63));
+                }
+                words[w] |= mask;
+            }
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.ar.allRideRental.service;
+
+import com.ar.allRideRental.model.Booking;
+import com.ar.allRideRental.repository.BookingRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+@Service
+public class BookingExportService {
+
+    private static final int FLUSH_EVERY_ROWS = 500;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Writes every booking as one JSON line, newest first, straight from the result set.
+    // Rows are detached as soon as they are written so memory stays flat however many there are.
+    @Transactional(readOnly = true)
+    public long exportNdjson(OutputStream out) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(Booking.class);
+        long rows = 0;
+
+        try (Stream<Booking> bookings = bookingRepository.streamAllForExport()) {
+            Iterator<Booking> iterator = bookings.iterator();
+            while (iterator.hasNext()) {
+                Booking booking = iterator.next();
+                out.write(writer.writeValueAsBytes(booking));
+                out.write('\n');
+                entityManager.detach(booking);
+
+                if (++rows % FLUSH_EVERY_ROWS == 0) {
+                    out.flush();
+                }
+            }
+        }
+        out.flush();
+        return rows;
+    }
+}
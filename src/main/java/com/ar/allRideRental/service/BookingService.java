@@ -1,18 +1,34 @@
 package com.ar.allRideRental.service;
 
+import com.ar.allRideRental.dto.AvailabilityQuery;
+import com.ar.allRideRental.dto.BookingResponse;
+import com.ar.allRideRental.dto.CursorPage;
 import com.ar.allRideRental.model.Booking;
 import com.ar.allRideRental.model.BookingRequest;
 import com.ar.allRideRental.model.Vehicle;
 import com.ar.allRideRental.repository.BookingRepository;
 import com.ar.allRideRental.repository.VehicleRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 
 @Service
 public class BookingService {
@@ -23,6 +39,24 @@ public class BookingService {
     @Autowired
     private VehicleRepository vehicleRepository;
 
+    @Autowired
+    private BookingAvailabilityIndex availabilityIndex;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private BookingAdmissionLocks admissionLocks;
+
+    @Autowired
+    private BookingStatistics bookingStatistics;
+
+    @Value("${booking.page.default-size:20}")
+    private int defaultPageSize;
+
+    @Value("${booking.page.max-size:100}")
+    private int maxPageSize;
+
     public List<Booking> getBookingsByCustomerEmail(String email) {
         return bookingRepository.findByCustomerEmail(email);
     }
@@ -43,18 +77,12 @@ public class BookingService {
         return bookingRepository.findByVehicleIdAndStatus(vehicleId, "confirmed");
     }
 
-    public Booking createBooking(BookingRequest bookingRequest) {
-        // Check for overlapping bookings for the same vehicle
-        List<Booking> overlappingBookings = bookingRepository.findOverlappingBookings(
-                bookingRequest.getVehicleId(),
-                bookingRequest.getStartDate(),
-                bookingRequest.getEndDate()
-        );
-
-        if (!overlappingBookings.isEmpty()) {
-            throw new RuntimeException("Vehicle is already booked for the selected dates");
-        }
+    // Same bookings as getBookingsByVehicleId, as DTOs straight from the query
+    public List<BookingResponse> getBookingResponsesByVehicleId(Long vehicleId) {
+        return bookingRepository.findResponsesByVehicleIdAndStatus(vehicleId, "confirmed");
+    }
 
+    public Booking createBooking(BookingRequest bookingRequest) {
         Booking booking = new Booking();
         booking.setVehicleId(bookingRequest.getVehicleId());
         booking.setVehicleName(bookingRequest.getVehicleName());
@@ -69,12 +97,28 @@ public class BookingService {
         booking.setAdditionalDriver(bookingRequest.isAdditionalDriver());
         booking.setInsurance(bookingRequest.getInsurance());
         booking.setTotalAmount(bookingRequest.getTotalAmount());
-        booking.setVehicle(vehicleRepository.findById(bookingRequest.getVehicleId())
-                .orElseThrow(() -> new RuntimeException("Vehicle not found with id: " + bookingRequest.getVehicleId())));
         booking.setStatus(bookingRequest.getStatus());
-        booking.setVehicleImageUrl(booking.getVehicle().getImageUrl());
 
-        return bookingRepository.save(booking);
+        // The JVM lock keeps this instance's requests for the vehicle from queueing on the row lock;
+        // the row lock and the database overlap check cover the other instances, whose bookings the
+        // local index may not have seen yet
+        return admissionLocks.withVehicleLock(booking.getVehicleId(), () -> {
+            Booking savedBooking = transactionTemplate.execute(status -> {
+                booking.setVehicle(vehicleRepository.findByIdForUpdate(bookingRequest.getVehicleId())
+                        .orElseThrow(() -> new RuntimeException("Vehicle not found with id: " + bookingRequest.getVehicleId())));
+                booking.setVehicleImageUrl(booking.getVehicle().getImageUrl());
+
+                // Check for overlapping bookings for the same vehicle
+                if (!bookingRepository.findOverlappingBookings(
+                        booking.getVehicleId(), booking.getStartDate(), booking.getEndDate()).isEmpty()) {
+                    throw new RuntimeException("Vehicle is already booked for the selected dates");
+                }
+                return bookingRepository.save(booking);
+            });
+            availabilityIndex.update(savedBooking);
+            bookingStatistics.recordCreated(savedBooking);
+            return savedBooking;
+        });
     }
 
     public List<Booking> getAllBookings() {
@@ -85,6 +129,70 @@ public class BookingService {
         return bookingRepository.findByCustomerPhoneOrderByCreatedAtDesc(phone);
     }
 
+    public List<BookingResponse> getBookingResponsesByCustomerPhone(String phone) {
+        return bookingRepository.findResponsesByCustomerPhone(phone);
+    }
+
+    // Newest first, keyset-paginated on (createdAt, id); cursor is null for the first page
+    public CursorPage<Booking> getBookingsPage(String cursor, Integer size) {
+        Pageable pageable = pageRequest(size);
+        List<Booking> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = bookingRepository.findAllByOrderByCreatedAtDescIdDesc(pageable);
+        } else {
+            BookingCursor after = BookingCursor.decode(cursor);
+            rows = bookingRepository.findPageAfter(after.createdAt(), after.id(), pageable);
+        }
+        return toPage(rows, pageable.getPageSize() - 1);
+    }
+
+    public CursorPage<Booking> getBookingsPageByCustomerPhone(String phone, String cursor, Integer size) {
+        Pageable pageable = pageRequest(size);
+        List<Booking> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = bookingRepository.findByCustomerPhoneOrderByCreatedAtDescIdDesc(phone, pageable);
+        } else {
+            BookingCursor after = BookingCursor.decode(cursor);
+            rows = bookingRepository.findCustomerPageAfter(phone, after.createdAt(), after.id(), pageable);
+        }
+        return toPage(rows, pageable.getPageSize() - 1);
+    }
+
+    // Fetches one extra row to know whether another page exists
+    private Pageable pageRequest(Integer size) {
+        int pageSize = size == null ? defaultPageSize : Math.max(1, Math.min(size, maxPageSize));
+        return PageRequest.of(0, pageSize + 1);
+    }
+
+    private CursorPage<Booking> toPage(List<Booking> rows, int pageSize) {
+        if (rows.size() <= pageSize) {
+            return new CursorPage<>(rows, null, false);
+        }
+        List<Booking> items = rows.subList(0, pageSize);
+        Booking last = items.get(pageSize - 1);
+        return new CursorPage<>(items, new BookingCursor(last.getCreatedAt(), last.getId()).encode(), true);
+    }
+
+    // Opaque to clients: base64url of "createdAt|id" of the last row on the previous page
+    private record BookingCursor(LocalDateTime createdAt, Long id) {
+
+        String encode() {
+            String raw = createdAt + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static BookingCursor decode(String token) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+                int separator = raw.lastIndexOf('|');
+                return new BookingCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                        Long.parseLong(raw.substring(separator + 1)));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid cursor: " + token);
+            }
+        }
+    }
+
     public Booking getBookingById(Long id) {
         Optional<Booking> booking = bookingRepository.findById(id);
         if (booking.isPresent()) {
@@ -94,46 +202,115 @@ public class BookingService {
     }
 
     public Booking updateBookingStatus(Long id, String status) {
-        Booking booking = getBookingById(id);
-        booking.setStatus(status);
-        return bookingRepository.save(booking);
+        return changeBooking(id, booking -> booking.setStatus(status));
     }
 
     public Booking cancelBooking(Long id) {
-        Booking booking = getBookingById(id);
+        return changeBooking(id, booking -> {
+            // Check if booking can be cancelled (at least 24 hours before start)
+            if (booking.getStartDate().isBefore(LocalDate.now().plusDays(1))) {
+                throw new RuntimeException("Booking can only be cancelled at least 24 hours before pickup");
+            }
+            booking.setStatus("cancelled");
+        });
+    }
 
-        // Check if booking can be cancelled (at least 24 hours before start)
-        if (booking.getStartDate().isBefore(LocalDate.now().plusDays(1))) {
-            throw new RuntimeException("Booking can only be cancelled at least 24 hours before pickup");
-        }
+    // Load, check and save run under the same locks as createBooking (JVM stripe, then the vehicle
+    // row), so a change can't start from a stale status or interleave with an admission elsewhere
+    private Booking changeBooking(Long id, Consumer<Booking> change) {
+        Long vehicleId = bookingRepository.findVehicleIdById(id)
+                .orElseThrow(() -> new RuntimeException("Booking not found with id: " + id));
+        return admissionLocks.withVehicleLock(vehicleId, () -> {
+            StatusChange statusChange = transactionTemplate.execute(status -> {
+                vehicleRepository.findByIdForUpdate(vehicleId);
+                Booking booking = getBookingById(id);
+                String oldStatus = booking.getStatus();
+                change.accept(booking);
+                return new StatusChange(oldStatus, bookingRepository.save(booking));
+            });
+            Booking savedBooking = statusChange.booking();
+            availabilityIndex.update(savedBooking);
+            bookingStatistics.recordStatusChange(statusChange.oldStatus(), savedBooking.getStatus(), savedBooking.getTotalAmount());
+            return savedBooking;
+        });
+    }
 
-        booking.setStatus("cancelled");
-        return bookingRepository.save(booking);
+    private record StatusChange(String oldStatus, Booking booking) {
     }
 
     public Map<String, Object> getBookingStatistics() {
-        long totalBookings = bookingRepository.count();
-        long confirmedBookings = bookingRepository.countByStatus("confirmed");
-        long activeBookings = bookingRepository.countByStatus("active");
-        long completedBookings = bookingRepository.countByStatus("completed");
-        long cancelledBookings = bookingRepository.countByStatus("cancelled");
+        return bookingStatistics.snapshot();
+    }
 
-        Double totalRevenue = bookingRepository.getTotalRevenue();
+    public boolean isVehicleAvailable(Long vehicleId, LocalDate startDate, LocalDate endDate) {
+        return !hasOverlappingBooking(vehicleId, startDate, endDate);
+    }
 
-        return Map.of(
-                "totalBookings", totalBookings,
-                "confirmedBookings", confirmedBookings,
-                "activeBookings", activeBookings,
-                "completedBookings", completedBookings,
-                "cancelledBookings", cancelledBookings,
-                "totalRevenue", totalRevenue != null ? totalRevenue : 0.0
-        );
+    // Keeps only the vehicles that are free for the whole range
+    public List<Long> filterAvailableVehicleIds(Collection<Long> vehicleIds, LocalDate startDate, LocalDate endDate) {
+        if (vehicleIds.isEmpty()) {
+            return List.of();
+        }
+        if (availabilityIndex.isReady()) {
+            return availabilityIndex.filterFree(vehicleIds, startDate, endDate);
+        }
+
+        // Index not loaded yet: one query for all vehicles instead of one per vehicle
+        HashSet<Long> bookedVehicleIds = new HashSet<>(
+                bookingRepository.findBookedVehicleIds(vehicleIds, startDate, endDate));
+        return vehicleIds.stream()
+                .filter(vehicleId -> !bookedVehicleIds.contains(vehicleId))
+                .toList();
     }
 
-    public boolean isVehicleAvailable(Long vehicleId, LocalDate startDate, LocalDate endDate) {
-        List<Booking> overlappingBookings = bookingRepository.findOverlappingBookings(
-                vehicleId, startDate, endDate
-        );
-        return overlappingBookings.isEmpty();
+    // Availability of many (vehicleId, startDate, endDate) triples, keyed by AvailabilityQuery.toKey()
+    public Map<String, Boolean> checkAvailability(List<AvailabilityQuery> queries) {
+        Map<String, Boolean> results = new LinkedHashMap<>();
+        if (availabilityIndex.isReady()) {
+            for (AvailabilityQuery query : queries) {
+                results.put(query.toKey(), availabilityIndex.isFree(
+                        query.getVehicleId(), query.getStartDate(), query.getEndDate()));
+            }
+            return results;
+        }
+
+        // Index not loaded yet: fetch every booking in the overall window with one query
+        Set<Long> vehicleIds = new HashSet<>();
+        LocalDate windowStart = null;
+        LocalDate windowEnd = null;
+        for (AvailabilityQuery query : queries) {
+            vehicleIds.add(query.getVehicleId());
+            if (windowStart == null || query.getStartDate().isBefore(windowStart)) {
+                windowStart = query.getStartDate();
+            }
+            if (windowEnd == null || query.getEndDate().isAfter(windowEnd)) {
+                windowEnd = query.getEndDate();
+            }
+        }
+
+        Map<Long, List<LocalDate[]>> bookedRanges = new HashMap<>();
+        if (!vehicleIds.isEmpty()) {
+            for (Object[] row : bookingRepository.findBookingIntervalsInWindow(vehicleIds, windowStart, windowEnd)) {
+                bookedRanges.computeIfAbsent((Long) row[0], id -> new ArrayList<>())
+                        .add(new LocalDate[]{(LocalDate) row[1], (LocalDate) row[2]});
+            }
+        }
+
+        for (AvailabilityQuery query : queries) {
+            boolean available = bookedRanges.getOrDefault(query.getVehicleId(), List.of()).stream()
+                    .noneMatch(range -> !range[0].isAfter(query.getEndDate())
+                            && !range[1].isBefore(query.getStartDate()));
+            results.put(query.toKey(), available);
+        }
+        return results;
+    }
+
+    // Answered from the in-memory index once it is loaded, from the database before that. Only a
+    // fast filter for reads: createBooking re-checks against the database before inserting
+    private boolean hasOverlappingBooking(Long vehicleId, LocalDate startDate, LocalDate endDate) {
+        if (availabilityIndex.isReady()) {
+            return availabilityIndex.hasOverlap(vehicleId, startDate, endDate);
+        }
+        return !bookingRepository.findOverlappingBookings(vehicleId, startDate, endDate).isEmpty();
     }
 }
\ No newline at end of file
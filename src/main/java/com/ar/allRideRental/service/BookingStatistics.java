@@ -0,0 +1,130 @@
+package com.ar.allRideRental.service;
+
+import com.ar.allRideRental.model.Booking;
+import com.ar.allRideRental.repository.BookingRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+// Booking counters kept up to date on every create / status change, so /api/bookings/stats
+// doesn't have to run count and sum queries. Reconciled against the database periodically.
+@Component
+public class BookingStatistics {
+
+    private static final Logger log = LoggerFactory.getLogger(BookingStatistics.class);
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    private volatile Counters counters = new Counters();
+
+    // 0 until a reconcile has succeeded
+    private volatile long lastReconciledAtMillis = 0;
+
+    // Set when a reconcile fails, cleared by the next one that succeeds
+    private volatile long lastFailedAtMillis = 0;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        reconcile();
+    }
+
+    @Scheduled(fixedDelayString = "${booking.stats.reconcile-interval-ms:300000}",
+            initialDelayString = "${booking.stats.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        try {
+            Counters fresh = new Counters();
+            List<Object[]> rows = bookingRepository.countAndSumByStatus();
+            for (Object[] row : rows) {
+                String status = (String) row[0];
+                long count = ((Number) row[1]).longValue();
+                double amount = row[2] != null ? ((Number) row[2]).doubleValue() : 0.0;
+                fresh.total.add(count);
+                fresh.byStatus(status).add(count);
+                if ("completed".equals(status)) {
+                    fresh.revenue.add(amount);
+                }
+            }
+            // Updates racing with the query above may be lost until the next reconcile
+            counters = fresh;
+            lastReconciledAtMillis = System.currentTimeMillis();
+            lastFailedAtMillis = 0;
+        } catch (Exception e) {
+            // The counters keep counting from zero; the next scheduled run retries
+            lastFailedAtMillis = System.currentTimeMillis();
+            log.error("Error reconciling booking statistics", e);
+        }
+    }
+
+    public void recordCreated(Booking booking) {
+        Counters current = counters;
+        current.total.increment();
+        current.byStatus(booking.getStatus()).increment();
+        if ("completed".equals(booking.getStatus())) {
+            current.revenue.add(booking.getTotalAmount());
+        }
+    }
+
+    public void recordStatusChange(String oldStatus, String newStatus, double totalAmount) {
+        if (oldStatus != null && oldStatus.equals(newStatus)) {
+            return;
+        }
+        Counters current = counters;
+        current.byStatus(oldStatus).decrement();
+        current.byStatus(newStatus).increment();
+        if ("completed".equals(oldStatus)) {
+            current.revenue.add(-totalAmount);
+        }
+        if ("completed".equals(newStatus)) {
+            current.revenue.add(totalAmount);
+        }
+    }
+
+    // Never queries the database: if no reconcile has succeeded yet, the counters only cover this
+    // instance's changes since startup and lastReconciledAt is null
+    public Map<String, Object> snapshot() {
+        Counters current = counters;
+        long reconciledAt = lastReconciledAtMillis;
+        long failedAt = lastFailedAtMillis;
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("totalBookings", current.total.sum());
+        stats.put("confirmedBookings", current.byStatus("confirmed").sum());
+        stats.put("activeBookings", current.byStatus("active").sum());
+        stats.put("completedBookings", current.byStatus("completed").sum());
+        stats.put("cancelledBookings", current.byStatus("cancelled").sum());
+        stats.put("totalRevenue", current.revenue.sum());
+        stats.put("lastReconciledAt", reconciledAt == 0 ? null : toDateTime(reconciledAt));
+        stats.put("secondsSinceReconcile", reconciledAt == 0 ? null : (System.currentTimeMillis() - reconciledAt) / 1000);
+        stats.put("lastReconcileFailedAt", failedAt == 0 ? null : toDateTime(failedAt));
+        return stats;
+    }
+
+    private static LocalDateTime toDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+
+    private static class Counters {
+        final LongAdder total = new LongAdder();
+        final DoubleAdder revenue = new DoubleAdder();
+        final Map<String, LongAdder> statusCounts = new ConcurrentHashMap<>();
+
+        LongAdder byStatus(String status) {
+            return statusCounts.computeIfAbsent(status != null ? status : "unknown", key -> new LongAdder());
+        }
+    }
+}
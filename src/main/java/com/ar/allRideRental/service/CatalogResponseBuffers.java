@@ -0,0 +1,64 @@
+package com.ar.allRideRental.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+// Serialized JSON (plain and gzipped) of each catalog view, regenerated when the shared
+// catalog revision changes, so the busiest endpoints just copy bytes to the response.
+// The max age bounds how long writes that bypass the services (and the revision) go unseen.
+@Component
+public class CatalogResponseBuffers {
+
+    @Autowired
+    private CatalogRevision catalogRevision;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${catalog.preserialized.max-age-seconds:60}")
+    private long maxAgeSeconds;
+
+    private final Map<String, SerializedView> views = new ConcurrentHashMap<>();
+
+    public record SerializedView(long revision, long builtAtNanos, byte[] json, byte[] gzip) {
+    }
+
+    public SerializedView get(String view, Supplier<?> loader) {
+        // Read before loading: if a write races with the load the view is simply rebuilt next time
+        long revision = catalogRevision.current();
+        long now = System.nanoTime();
+        SerializedView current = views.get(view);
+        if (current != null && current.revision() == revision
+                && now - current.builtAtNanos() < TimeUnit.SECONDS.toNanos(maxAgeSeconds)) {
+            return current;
+        }
+
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(loader.get());
+            SerializedView fresh = new SerializedView(revision, now, json, gzip(json));
+            views.merge(view, fresh, (old, candidate) -> candidate.revision() >= old.revision() ? candidate : old);
+            return fresh;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static byte[] gzip(byte[] json) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(json.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(buffer)) {
+            gzip.write(json);
+        }
+        return buffer.toByteArray();
+    }
+}
@@ -0,0 +1,105 @@
+package com.ar.allRideRental.service;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.TimeUnit;
+
+// Monotonic version of the vehicle/city catalog, shared by all instances through the single
+// row of the catalog_revision table and bumped in the same transaction as every catalog write.
+// Used to build strong ETags so unchanged collections can be answered with 304. Each instance
+// re-reads the row at most once per catalog.revision.ttl-millis, which bounds how long it can
+// keep answering for a catalog changed elsewhere.
+@Component
+public class CatalogRevision {
+
+    private record Snapshot(long revision, long readAtNanos) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final long ttlNanos;
+
+    // Null once a local write commits, so the next read goes to the database
+    private volatile Snapshot snapshot;
+
+    public CatalogRevision(JdbcTemplate jdbcTemplate, @Value("${catalog.revision.ttl-millis:1000}") long ttlMillis) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+    }
+
+    // Plain CREATE TABLE / INSERT with the "already there" errors ignored, so it works the same
+    // on H2, MySQL and SQL Server. Seeded with the current time so ETags handed out before the
+    // table was recreated never match afterwards.
+    @PostConstruct
+    void createTable() {
+        try {
+            jdbcTemplate.execute("CREATE TABLE catalog_revision (id INT NOT NULL PRIMARY KEY, revision BIGINT NOT NULL)");
+        } catch (DataAccessException e) {
+            // Created by an earlier start or by another instance
+        }
+        try {
+            jdbcTemplate.update("INSERT INTO catalog_revision (id, revision) VALUES (1, ?)", System.currentTimeMillis());
+        } catch (DuplicateKeyException e) {
+            // Already seeded
+        }
+    }
+
+    public long current() {
+        Snapshot current = snapshot;
+        if (current == null || System.nanoTime() - current.readAtNanos() >= ttlNanos) {
+            current = refresh();
+        }
+        return current.revision();
+    }
+
+    private synchronized Snapshot refresh() {
+        Snapshot current = snapshot;
+        long now = System.nanoTime();
+        if (current != null && now - current.readAtNanos() < ttlNanos) {
+            return current;
+        }
+        Long revision = jdbcTemplate.queryForObject("SELECT revision FROM catalog_revision WHERE id = 1", Long.class);
+        Snapshot fresh = new Snapshot(revision, now);
+        snapshot = fresh;
+        return fresh;
+    }
+
+    // Must be called inside the transaction of the catalog write: the revision then moves exactly
+    // when the write commits, on every instance at once
+    public void bump() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Catalog revision must be bumped inside the write transaction");
+        }
+        jdbcTemplate.update("UPDATE catalog_revision SET revision = revision + 1 WHERE id = 1");
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                snapshot = null;
+            }
+        });
+    }
+
+    public String etag(String view) {
+        return "\"" + view + "-" + current() + "\"";
+    }
+
+    // If-None-Match may list several tags or be "*"
+    public static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -4,6 +4,7 @@ import com.ar.allRideRental.model.City;
 import com.ar.allRideRental.repository.CityRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,6 +13,10 @@ public class CityService {
     
     @Autowired
     private CityRepository cityRepository;
+
+    // Bumped inside each write's transaction, so every instance sees the change once it commits
+    @Autowired
+    private CatalogRevision catalogRevision;
     
     public List<City> getAllCities() {
         return cityRepository.findByIsActiveTrue();
@@ -25,13 +30,17 @@ public class CityService {
         return cityRepository.findByName(name);
     }
     
+    @Transactional
     public City createCity(City city) {
         if (cityRepository.existsByName(city.getName())) {
             throw new RuntimeException("City already exists: " + city.getName());
         }
-        return cityRepository.save(city);
+        City savedCity = cityRepository.save(city);
+        catalogRevision.bump();
+        return savedCity;
     }
     
+    @Transactional
     public City updateCity(Long id, City cityDetails) {
         City city = cityRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("City not found with id: " + id));
@@ -40,13 +49,17 @@ public class CityService {
         city.setState(cityDetails.getState());
         city.setActive(cityDetails.isActive());
         
-        return cityRepository.save(city);
+        City savedCity = cityRepository.save(city);
+        catalogRevision.bump();
+        return savedCity;
     }
     
+    @Transactional
     public void deleteCity(Long id) {
         City city = cityRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("City not found with id: " + id));
         city.setActive(false);
         cityRepository.save(city);
+        catalogRevision.bump();
     }
 }
\ No newline at end of file
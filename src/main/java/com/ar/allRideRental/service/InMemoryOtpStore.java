@@ -0,0 +1,206 @@
+package com.ar.allRideRental.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+// Per-instance OtpStore. Expiry is driven by a hashed timing wheel advanced by a single
+// background thread, so each entry is touched once when its slot comes round instead of on
+// every request; reads additionally treat entries past their deadline as expired.
+@Component
+@ConditionalOnProperty(name = "otp.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryOtpStore implements OtpStore {
+
+    private final long ttlNanos;
+    private final long resendIntervalNanos;
+    private final long tickNanos;
+
+    private final Map<String, Slot> entries = new ConcurrentHashMap<>();
+
+    private final Queue<Slot>[] wheel;
+    private final int wheelMask;
+    private final long startNanos = System.nanoTime();
+
+    // Last tick whose slot has been processed; only touched by the wheel thread
+    private long processedTick = 0;
+
+    private ScheduledExecutorService ticker;
+
+    @Autowired
+    public InMemoryOtpStore(@Value("${otp.expiry.minutes:5}") int expiryMinutes,
+                            @Value("${otp.resend.interval-seconds:30}") int resendIntervalSeconds,
+                            @Value("${otp.store.tick-millis:1000}") long tickMillis) {
+        this(Duration.ofMinutes(expiryMinutes), Duration.ofSeconds(resendIntervalSeconds), Duration.ofMillis(tickMillis));
+    }
+
+    @SuppressWarnings("unchecked")
+    InMemoryOtpStore(Duration ttl, Duration resendInterval, Duration tick) {
+        this.ttlNanos = ttl.toNanos();
+        this.resendIntervalNanos = resendInterval.toNanos();
+        this.tickNanos = tick.toNanos();
+
+        // One lap longer than the TTL, so an entry is normally visited exactly once
+        long ticksPerTtl = ttlNanos / tickNanos + 2;
+        int size = 64;
+        while (size < ticksPerTtl) {
+            size <<= 1;
+        }
+        this.wheel = new Queue[size];
+        for (int i = 0; i < size; i++) {
+            wheel[i] = new ConcurrentLinkedQueue<>();
+        }
+        this.wheelMask = size - 1;
+    }
+
+    @PostConstruct
+    public void start() {
+        ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "otp-expiry-wheel");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long tickMillis = TimeUnit.NANOSECONDS.toMillis(tickNanos);
+        ticker.scheduleAtFixedRate(this::advance, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (ticker != null) {
+            ticker.shutdownNow();
+        }
+    }
+
+    // The mutable state behind an entry; snapshots are handed out as OtpStore.Entry
+    private static final class Slot {
+        final String phoneNumber;
+        final String otp;
+        final long issueId;
+        final long issuedAtMillis;
+        final long createdAtNanos;
+        final long expiresAtNanos;
+        final AtomicInteger attempts = new AtomicInteger();
+        volatile DeliveryStatus deliveryStatus = DeliveryStatus.PENDING;
+
+        Slot(String phoneNumber, String otp, long createdAtNanos, long expiresAtNanos) {
+            this.phoneNumber = phoneNumber;
+            this.otp = otp;
+            this.issueId = ThreadLocalRandom.current().nextLong();
+            this.issuedAtMillis = System.currentTimeMillis();
+            this.createdAtNanos = createdAtNanos;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+
+        boolean isExpired() {
+            return System.nanoTime() - expiresAtNanos >= 0;
+        }
+
+        Entry snapshot() {
+            long expiresAtMillis = issuedAtMillis + TimeUnit.NANOSECONDS.toMillis(expiresAtNanos - createdAtNanos);
+            return new Entry(phoneNumber, otp, issueId, issuedAtMillis, expiresAtMillis, attempts.get(), deliveryStatus);
+        }
+    }
+
+    @Override
+    public Optional<Entry> get(String phoneNumber) {
+        return Optional.ofNullable(entries.get(phoneNumber)).map(Slot::snapshot);
+    }
+
+    @Override
+    public Issue issue(String phoneNumber, Supplier<String> otpGenerator) {
+        long now = System.nanoTime();
+        Slot[] recent = new Slot[1];
+        Slot slot = entries.compute(phoneNumber, (phone, existing) -> {
+            if (existing != null && !existing.isExpired() && now - existing.createdAtNanos < resendIntervalNanos) {
+                recent[0] = existing;
+                return existing;
+            }
+            return new Slot(phone, otpGenerator.get(), now, now + ttlNanos);
+        });
+
+        if (slot == recent[0]) {
+            long waitNanos = resendIntervalNanos - (now - slot.createdAtNanos);
+            return new Issue(slot.snapshot(), false, Math.max(1, (waitNanos + 999_999_999L) / 1_000_000_000L));
+        }
+        schedule(slot);
+        return new Issue(slot.snapshot(), true, 0);
+    }
+
+    @Override
+    public int recordAttempt(Entry entry) {
+        Slot slot = current(entry);
+        return slot != null ? slot.attempts.incrementAndGet() : 0;
+    }
+
+    @Override
+    public void markDelivery(Entry entry, DeliveryStatus status) {
+        Slot slot = current(entry);
+        if (slot != null) {
+            slot.deliveryStatus = status;
+        }
+    }
+
+    @Override
+    public void remove(Entry entry) {
+        Slot slot = current(entry);
+        if (slot != null) {
+            entries.remove(entry.getPhoneNumber(), slot);
+        }
+    }
+
+    @Override
+    public int size() {
+        return entries.size();
+    }
+
+    private Slot current(Entry entry) {
+        Slot slot = entries.get(entry.getPhoneNumber());
+        return slot != null && slot.issueId == entry.getIssueId() ? slot : null;
+    }
+
+    private void schedule(Slot slot) {
+        long deadlineTick = (slot.expiresAtNanos - startNanos + tickNanos - 1) / tickNanos;
+        wheel[(int) (deadlineTick & wheelMask)].add(slot);
+    }
+
+    // Processes every slot between the last processed tick and now (catches up after pauses)
+    void advance() {
+        long nowTick = (System.nanoTime() - startNanos) / tickNanos;
+        while (processedTick < nowTick) {
+            processedTick++;
+            expireSlot(processedTick);
+        }
+    }
+
+    private void expireSlot(long tick) {
+        Queue<Slot> bucket = wheel[(int) (tick & wheelMask)];
+        int pending = bucket.size();
+        for (int i = 0; i < pending; i++) {
+            Slot slot = bucket.poll();
+            if (slot == null) {
+                break;
+            }
+            if (slot.isExpired()) {
+                entries.remove(slot.phoneNumber, slot);
+            } else {
+                // Deadline is a later lap of the wheel
+                bucket.add(slot);
+            }
+        }
+    }
+}
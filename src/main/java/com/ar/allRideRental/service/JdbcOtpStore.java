@@ -0,0 +1,167 @@
+package com.ar.allRideRental.service;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+// OtpStore shared by all instances through the otp_codes table, created on startup. One row
+// per phone, upserted as UPDATE-then-INSERT so it works the same on H2, MySQL and SQL Server;
+// expired rows are removed by a periodic single DELETE on the expires_at index.
+@Component
+@ConditionalOnProperty(name = "otp.store", havingValue = "jdbc")
+public class JdbcOtpStore implements OtpStore {
+
+    private static final Logger log = LoggerFactory.getLogger(JdbcOtpStore.class);
+
+    private static final String SELECT_COLUMNS =
+            "SELECT phone, otp, issue_id, issued_at, expires_at, attempts, delivery_status FROM otp_codes ";
+
+    private static final RowMapper<Entry> ENTRY_MAPPER = (rs, rowNum) -> new Entry(
+            rs.getString("phone"),
+            rs.getString("otp"),
+            rs.getLong("issue_id"),
+            rs.getLong("issued_at"),
+            rs.getLong("expires_at"),
+            rs.getInt("attempts"),
+            DeliveryStatus.valueOf(rs.getString("delivery_status")));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final long ttlMillis;
+    private final long resendIntervalMillis;
+
+    public JdbcOtpStore(JdbcTemplate jdbcTemplate,
+                        TransactionTemplate transactionTemplate,
+                        @Value("${otp.expiry.minutes:5}") int expiryMinutes,
+                        @Value("${otp.resend.interval-seconds:30}") int resendIntervalSeconds) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.ttlMillis = TimeUnit.MINUTES.toMillis(expiryMinutes);
+        this.resendIntervalMillis = TimeUnit.SECONDS.toMillis(resendIntervalSeconds);
+    }
+
+    // Plain CREATE TABLE / CREATE INDEX with the "already exists" errors ignored, so the same
+    // statements work on H2, MySQL and SQL Server and on every instance's start
+    @PostConstruct
+    void createTable() {
+        createIfMissing("""
+                CREATE TABLE otp_codes (
+                    phone VARCHAR(15) NOT NULL PRIMARY KEY,
+                    otp VARCHAR(10) NOT NULL,
+                    issue_id BIGINT NOT NULL,
+                    issued_at BIGINT NOT NULL,
+                    expires_at BIGINT NOT NULL,
+                    attempts INT NOT NULL,
+                    delivery_status VARCHAR(10) NOT NULL
+                )
+                """);
+        createIfMissing("CREATE INDEX idx_otp_expires_at ON otp_codes(expires_at)");
+    }
+
+    private void createIfMissing(String ddl) {
+        try {
+            jdbcTemplate.execute(ddl);
+        } catch (DataAccessException e) {
+            log.debug("Skipped OTP store DDL, assuming it already exists: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public Optional<Entry> get(String phoneNumber) {
+        List<Entry> rows = jdbcTemplate.query(SELECT_COLUMNS + "WHERE phone = ?", ENTRY_MAPPER, phoneNumber);
+        return rows.stream().findFirst();
+    }
+
+    @Override
+    public Issue issue(String phoneNumber, Supplier<String> otpGenerator) {
+        long now = System.currentTimeMillis();
+        Entry entry = new Entry(phoneNumber, otpGenerator.get(), ThreadLocalRandom.current().nextLong(),
+                now, now + ttlMillis, 0, DeliveryStatus.PENDING);
+
+        // Replace the existing row only if it is outside the resend window (or expired)
+        int updated = jdbcTemplate.update(
+                "UPDATE otp_codes SET otp = ?, issue_id = ?, issued_at = ?, expires_at = ?, attempts = 0, delivery_status = ? "
+                        + "WHERE phone = ? AND (issued_at <= ? OR expires_at <= ?)",
+                entry.getOtp(), entry.getIssueId(), now, entry.getExpiresAtMillis(), DeliveryStatus.PENDING.name(),
+                phoneNumber, now - resendIntervalMillis, now);
+        if (updated == 1) {
+            return new Issue(entry, true, 0);
+        }
+
+        try {
+            jdbcTemplate.update(
+                    "INSERT INTO otp_codes (phone, otp, issue_id, issued_at, expires_at, attempts, delivery_status) "
+                            + "VALUES (?, ?, ?, ?, ?, 0, ?)",
+                    phoneNumber, entry.getOtp(), entry.getIssueId(), now, entry.getExpiresAtMillis(),
+                    DeliveryStatus.PENDING.name());
+            return new Issue(entry, true, 0);
+        } catch (DuplicateKeyException e) {
+            // A recent OTP exists (possibly just inserted by another instance)
+            Optional<Entry> recent = get(phoneNumber);
+            if (recent.isEmpty()) {
+                return issue(phoneNumber, otpGenerator);
+            }
+            long waitMillis = resendIntervalMillis - (now - recent.get().getIssuedAtMillis());
+            return new Issue(recent.get(), false, Math.max(1, (waitMillis + 999) / 1000));
+        }
+    }
+
+    // One transaction: the UPDATE holds the row lock until the SELECT has read this attempt's
+    // count, so concurrent verifications on any instance each see a distinct count
+    @Override
+    public int recordAttempt(Entry entry) {
+        Integer attempts = transactionTemplate.execute(status -> {
+            int updated = jdbcTemplate.update("UPDATE otp_codes SET attempts = attempts + 1 WHERE phone = ? AND issue_id = ?",
+                    entry.getPhoneNumber(), entry.getIssueId());
+            if (updated == 0) {
+                return 0;
+            }
+            return jdbcTemplate.queryForObject("SELECT attempts FROM otp_codes WHERE phone = ? AND issue_id = ?",
+                    Integer.class, entry.getPhoneNumber(), entry.getIssueId());
+        });
+        return attempts != null ? attempts : 0;
+    }
+
+    @Override
+    public void markDelivery(Entry entry, DeliveryStatus status) {
+        jdbcTemplate.update("UPDATE otp_codes SET delivery_status = ? WHERE phone = ? AND issue_id = ?",
+                status.name(), entry.getPhoneNumber(), entry.getIssueId());
+    }
+
+    @Override
+    public void remove(Entry entry) {
+        jdbcTemplate.update("DELETE FROM otp_codes WHERE phone = ? AND issue_id = ?",
+                entry.getPhoneNumber(), entry.getIssueId());
+    }
+
+    @Override
+    public int size() {
+        Integer count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM otp_codes", Integer.class);
+        return count != null ? count : 0;
+    }
+
+    // Every instance may run this; the DELETE is idempotent
+    @Scheduled(fixedDelayString = "${otp.store.jdbc.sweep-interval-ms:60000}")
+    public int sweepExpired() {
+        int deleted = jdbcTemplate.update("DELETE FROM otp_codes WHERE expires_at <= ?", System.currentTimeMillis());
+        if (deleted > 0) {
+            log.debug("Removed {} expired OTPs", deleted);
+        }
+        return deleted;
+    }
+}
@@ -0,0 +1,72 @@
+package com.ar.allRideRental.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+// Plain SMS through a MSG91 flow template (msg91.template.id / msg91.sender.id)
+@Component
+public class Msg91SmsProvider implements OtpProvider {
+
+    @Value("${msg91.authkey:}")
+    private String msg91AuthKey;
+
+    @Value("${msg91.template.id:}")
+    private String msg91TemplateId;
+
+    @Value("${msg91.sender.id:}")
+    private String msg91SenderId;
+
+    @Value("${msg91.sms.url:https://control.msg91.com/api/v5/flow/}")
+    private String msg91SmsUrl;
+
+    private final WebClient webClient;
+    private final ObjectMapper objectMapper;
+
+    public Msg91SmsProvider(WebClient.Builder webClientBuilder, ObjectMapper objectMapper) {
+        this.webClient = webClientBuilder.build();
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public String getName() {
+        return "msg91";
+    }
+
+    @Override
+    public Mono<String> send(String mobileNumber, String otp) {
+        Map<String, Object> requestBody = Map.of(
+                "template_id", msg91TemplateId,
+                "sender", msg91SenderId,
+                "short_url", "0",
+                "mobiles", mobileNumber,
+                "otp", otp
+        );
+
+        return webClient.post()
+                .uri(msg91SmsUrl)
+                .header("authkey", msg91AuthKey)
+                .header("Content-Type", "application/json")
+                .bodyValue(requestBody)
+                .retrieve()
+                .bodyToMono(String.class)
+                .flatMap(this::requireSuccess);
+    }
+
+    private Mono<String> requireSuccess(String response) {
+        try {
+            JsonNode jsonResponse = objectMapper.readTree(response);
+            if ("success".equals(jsonResponse.path("type").asText())) {
+                return Mono.just(response);
+            }
+            return Mono.error(new RuntimeException("MSG91 SMS API Error: " + jsonResponse.path("message").asText()));
+        } catch (Exception e) {
+            return Mono.error(new RuntimeException("Error parsing MSG91 response: " + e.getMessage()));
+        }
+    }
+}
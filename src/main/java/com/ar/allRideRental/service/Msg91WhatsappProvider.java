@@ -0,0 +1,76 @@
+package com.ar.allRideRental.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+@Component
+public class Msg91WhatsappProvider implements OtpProvider {
+
+    @Value("${msg91.authkey:}")
+    private String msg91AuthKey;
+
+    @Value("${msg91.whatsapp.template.id:}")
+    private String msg91WhatsappTemplateId;
+
+    @Value("${msg91.whatsapp.sender:919999999999}")
+    private String msg91WhatsappSender;
+
+    @Value("${msg91.whatsapp.url:https://api.msg91.com/api/v5/whatsapp}")
+    private String msg91WhatsappUrl;
+
+    @Value("${app.otp.validity.minutes:5}")
+    private String otpValidityMinutes;
+
+    private final WebClient webClient;
+    private final ObjectMapper objectMapper;
+
+    public Msg91WhatsappProvider(WebClient.Builder webClientBuilder, ObjectMapper objectMapper) {
+        this.webClient = webClientBuilder.build();
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public String getName() {
+        return "msg91_whatsapp";
+    }
+
+    @Override
+    public Mono<String> send(String mobileNumber, String otp) {
+        // Template parameters: 1 = OTP, 2 = validity in minutes
+        Map<String, Object> requestBody = Map.of(
+                "template_id", msg91WhatsappTemplateId,
+                "sender", msg91WhatsappSender,
+                "short_url", "0",
+                "mobile", mobileNumber,
+                "parameters", Map.of("1", otp, "2", otpValidityMinutes)
+        );
+
+        return webClient.post()
+                .uri(msg91WhatsappUrl)
+                .header("authkey", msg91AuthKey)
+                .header("Content-Type", "application/json")
+                .bodyValue(requestBody)
+                .retrieve()
+                .bodyToMono(String.class)
+                .flatMap(this::requireSuccess);
+    }
+
+    // MSG91 answers 200 with {"type":"error"} for rejected messages
+    private Mono<String> requireSuccess(String response) {
+        try {
+            JsonNode jsonResponse = objectMapper.readTree(response);
+            if ("success".equals(jsonResponse.path("type").asText())) {
+                return Mono.just(response);
+            }
+            return Mono.error(new RuntimeException("MSG91 WhatsApp API Error: " + jsonResponse.path("message").asText()));
+        } catch (Exception e) {
+            return Mono.error(new RuntimeException("Error parsing MSG91 response: " + e.getMessage()));
+        }
+    }
+}
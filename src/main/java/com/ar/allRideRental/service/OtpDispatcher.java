@@ -0,0 +1,214 @@
+package com.ar.allRideRental.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeoutException;
+
+// Outbound OTP pipeline. send-otp only enqueues; one worker thread drains the queue into the
+// providers without holding request threads. Per phone only the latest OTP is queued (a resend
+// replaces the pending one), provider calls are retried with jittered exponential backoff, and
+// a circuit breaker on the primary provider fails fast over to the secondary one.
+// Every provider call is timed in otp.provider.requests (provider, outcome).
+@Component
+public class OtpDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(OtpDispatcher.class);
+
+    @Autowired
+    private OTPService otpService;
+
+    @Autowired
+    private OtpStore otpStore;
+
+    @Autowired
+    private List<OtpProvider> providers;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${sms.provider:msg91_whatsapp}")
+    private String primaryProviderName;
+
+    private final BlockingQueue<String> queue;
+    private final Map<String, OtpStore.Entry> pending = new ConcurrentHashMap<>();
+    private final Semaphore inFlight;
+    private final int maxInFlight;
+    private final Duration timeout;
+    private final int maxRetries;
+    private final Duration minBackoff;
+    private final Duration maxBackoff;
+    private final CircuitBreaker primaryBreaker;
+
+    private OtpProvider primary;
+    private OtpProvider secondary;
+    private Thread worker;
+
+    public OtpDispatcher(@Value("${otp.dispatch.queue-capacity:10000}") int queueCapacity,
+                         @Value("${otp.dispatch.max-in-flight:64}") int maxInFlight,
+                         @Value("${otp.dispatch.timeout-ms:10000}") long timeoutMillis,
+                         @Value("${otp.dispatch.retry.max-attempts:3}") int maxRetries,
+                         @Value("${otp.dispatch.retry.min-backoff-ms:200}") long minBackoffMillis,
+                         @Value("${otp.dispatch.retry.max-backoff-ms:2000}") long maxBackoffMillis,
+                         @Value("${otp.dispatch.breaker.failure-threshold:5}") int failureThreshold,
+                         @Value("${otp.dispatch.breaker.open-ms:30000}") long openMillis) {
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.inFlight = new Semaphore(maxInFlight);
+        this.maxInFlight = maxInFlight;
+        this.timeout = Duration.ofMillis(timeoutMillis);
+        this.maxRetries = maxRetries;
+        this.minBackoff = Duration.ofMillis(minBackoffMillis);
+        this.maxBackoff = Duration.ofMillis(maxBackoffMillis);
+        this.primaryBreaker = new CircuitBreaker(failureThreshold, openMillis);
+    }
+
+    @PostConstruct
+    public void start() {
+        // sms.provider picks the primary channel, any other provider is the fallback
+        primary = providers.stream().filter(p -> p.getName().equals(primaryProviderName)).findFirst()
+                .orElse(providers.get(0));
+        secondary = providers.stream().filter(p -> p != primary).findFirst().orElse(null);
+
+        Gauge.builder("otp.dispatch.queue.size", queue, BlockingQueue::size).register(meterRegistry);
+        Gauge.builder("otp.dispatch.in.flight", inFlight, permits -> maxInFlight - permits.availablePermits())
+                .register(meterRegistry);
+
+        worker = new Thread(this::drain, "otp-dispatcher");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (worker != null) {
+            worker.interrupt();
+        }
+    }
+
+    public void dispatch(OtpStore.Entry entry) {
+        String phoneNumber = entry.getPhoneNumber();
+        // The queue offer and the pending update happen under the map's lock for this phone, so
+        // a concurrent resend either coalesces into a queued entry or queues its own
+        boolean[] rejected = {false};
+        pending.compute(phoneNumber, (phone, queued) -> {
+            // Already queued: the newer OTP simply takes the queued one's place
+            if (queued != null || queue.offer(phone)) {
+                return entry;
+            }
+            rejected[0] = true;
+            return null;
+        });
+        if (rejected[0]) {
+            log.warn("OTP queue full, not sending to +91 {}", phoneNumber);
+            failed(entry, "queue full");
+        }
+    }
+
+    public CircuitBreaker.State getPrimaryBreakerState() {
+        return primaryBreaker.getState();
+    }
+
+    private void drain() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                String phoneNumber = queue.take();
+                inFlight.acquire();
+                OtpStore.Entry entry = pending.remove(phoneNumber);
+                if (entry == null) {
+                    inFlight.release();
+                    continue;
+                }
+                send(entry);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                log.error("OTP dispatcher error", e);
+            }
+        }
+    }
+
+    private void send(OtpStore.Entry entry) {
+        String mobileNumber;
+        try {
+            mobileNumber = otpService.formatPhoneNumber(entry.getPhoneNumber()).substring(1);
+        } catch (Exception e) {
+            inFlight.release();
+            failed(entry, e.getMessage());
+            return;
+        }
+
+        Mono<String> delivery;
+        if (primaryBreaker.allowRequest()) {
+            delivery = attempt(primary, mobileNumber, entry.getOtp())
+                    .doOnSuccess(response -> primaryBreaker.recordSuccess())
+                    .doOnError(error -> primaryBreaker.recordFailure())
+                    .onErrorResume(error -> fallback(mobileNumber, entry.getOtp(), error));
+        } else {
+            delivery = fallback(mobileNumber, entry.getOtp(),
+                    new RuntimeException(primary.getName() + " circuit open"));
+        }
+
+        delivery.doFinally(signal -> inFlight.release())
+                .subscribe(response -> delivered(entry, response), error -> failed(entry, error.getMessage()));
+    }
+
+    private Mono<String> fallback(String mobileNumber, String otp, Throwable primaryError) {
+        if (secondary == null) {
+            return Mono.error(primaryError);
+        }
+        log.warn("{} failed ({}), falling back to {}", primary.getName(), primaryError.getMessage(), secondary.getName());
+        return attempt(secondary, mobileNumber, otp);
+    }
+
+    private Mono<String> attempt(OtpProvider provider, String mobileNumber, String otp) {
+        return Mono.defer(() -> timed(provider, provider.send(mobileNumber, otp).timeout(timeout)))
+                .retryWhen(Retry.backoff(maxRetries, minBackoff).maxBackoff(maxBackoff).jitter(0.5)
+                        .onRetryExhaustedThrow((spec, signal) -> signal.failure()));
+    }
+
+    // One attempt, without retries; timeouts are told apart from provider errors
+    private Mono<String> timed(OtpProvider provider, Mono<String> call) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        return call
+                .doOnSuccess(response -> sample.stop(providerTimer(provider, "success")))
+                .doOnError(error -> sample.stop(providerTimer(provider,
+                        error instanceof TimeoutException ? "timeout" : "error")));
+    }
+
+    private Timer providerTimer(OtpProvider provider, String outcome) {
+        return Timer.builder("otp.provider.requests")
+                .tag("provider", provider.getName())
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private void delivered(OtpStore.Entry entry, String response) {
+        otpStore.markDelivery(entry, OtpStore.DeliveryStatus.SENT);
+        log.info("OTP sent to +91 {}: {}", entry.getPhoneNumber(), response);
+    }
+
+    private void failed(OtpStore.Entry entry, String reason) {
+        otpStore.markDelivery(entry, OtpStore.DeliveryStatus.FAILED);
+        log.warn("OTP delivery to +91 {} failed: {}", entry.getPhoneNumber(), reason);
+        // Development fallback: the code is only logged with DEBUG enabled for this class
+        log.debug("Undelivered OTP for +91 {}: {}", entry.getPhoneNumber(), entry.getOtp());
+    }
+}
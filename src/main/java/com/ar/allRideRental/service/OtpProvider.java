@@ -0,0 +1,13 @@
+package com.ar.allRideRental.service;
+
+import reactor.core.publisher.Mono;
+
+// An outbound channel for OTP messages. send() completes with the provider's response when
+// the message was accepted and errors otherwise, so the dispatcher can retry or fall back.
+public interface OtpProvider {
+
+    String getName();
+
+    // mobileNumber is in international format without the plus sign, e.g. 919876543210
+    Mono<String> send(String mobileNumber, String otp);
+}
@@ -0,0 +1,67 @@
+package com.ar.allRideRental.service;
+
+import java.util.Optional;
+import java.util.function.Supplier;
+
+// Pending OTPs by phone number. Selected with otp.store: "memory" (default, single instance)
+// or "jdbc" (shared otp_codes table, so any instance behind the load balancer can verify).
+// Entries are immutable snapshots; every write names the issue it applies to, so a write for
+// an OTP that has since been replaced or removed is ignored.
+public interface OtpStore {
+
+    // Outcome of the asynchronous provider call, reported by GET /api/auth/otp-status
+    enum DeliveryStatus { PENDING, SENT, FAILED }
+
+    record Issue(Entry entry, boolean issued, long retryAfterSeconds) {
+    }
+
+    final class Entry {
+        private final String phoneNumber;
+        private final String otp;
+        private final long issueId;
+        private final long issuedAtMillis;
+        private final long expiresAtMillis;
+        private final int attempts;
+        private final DeliveryStatus deliveryStatus;
+
+        public Entry(String phoneNumber, String otp, long issueId, long issuedAtMillis, long expiresAtMillis,
+                     int attempts, DeliveryStatus deliveryStatus) {
+            this.phoneNumber = phoneNumber;
+            this.otp = otp;
+            this.issueId = issueId;
+            this.issuedAtMillis = issuedAtMillis;
+            this.expiresAtMillis = expiresAtMillis;
+            this.attempts = attempts;
+            this.deliveryStatus = deliveryStatus;
+        }
+
+        public String getPhoneNumber() { return phoneNumber; }
+        public String getOtp() { return otp; }
+        public long getIssueId() { return issueId; }
+        public long getIssuedAtMillis() { return issuedAtMillis; }
+        public long getExpiresAtMillis() { return expiresAtMillis; }
+        public int getAttempts() { return attempts; }
+        public DeliveryStatus getDeliveryStatus() { return deliveryStatus; }
+
+        public boolean isExpired() {
+            return System.currentTimeMillis() >= expiresAtMillis;
+        }
+    }
+
+    Optional<Entry> get(String phoneNumber);
+
+    // Stores a new OTP unless one was issued for the phone within the resend interval;
+    // the check and the replacement happen atomically per phone number
+    Issue issue(String phoneNumber, Supplier<String> otpGenerator);
+
+    // Atomically counts one verification attempt and returns the new total,
+    // or 0 if the entry is no longer the current one for its phone number
+    int recordAttempt(Entry entry);
+
+    void markDelivery(Entry entry, DeliveryStatus status);
+
+    // Removes the entry only if it is still the current one for its phone number
+    void remove(Entry entry);
+
+    int size();
+}
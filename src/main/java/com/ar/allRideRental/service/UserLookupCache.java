@@ -0,0 +1,146 @@
+package com.ar.allRideRental.service;
+
+import com.ar.allRideRental.model.User;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+// Read-through cache of user lookups by phone number. Phones without a user are cached too,
+// with a shorter TTL, since the login flow checks the same unknown number several times before
+// create-user. Writes on this instance invalidate the phone; the TTLs bound how long another
+// instance's writes can go unseen. Users are cached as detached copies and every hit gets its
+// own copy, so no caller can change what another request sees. Lookups are counted in
+// cache.gets (cache=user-lookup), database loads are timed in cache.loads.
+@Component
+public class UserLookupCache {
+
+    private record Cached(User user, long expiresAtNanos) {
+        boolean isExpired(long now) {
+            return now - expiresAtNanos >= 0;
+        }
+    }
+
+    private static final String NAME = "user-lookup";
+
+    // Entries examined per miss once the cache is full
+    private static final int EVICTION_SAMPLE_SIZE = 16;
+
+    private final long ttlNanos;
+    private final long negativeTtlNanos;
+    private final int maxEntries;
+
+    private final Map<String, Cached> entries = new ConcurrentHashMap<>();
+
+    // Bumped by every invalidation; a load that raced with one is returned but not cached
+    private long generation = 0;
+
+    private final Counter hits;
+    // Hits on a cached "no such user"; also counted in hits
+    private final Counter negativeHits;
+    private final Counter misses;
+    private final Timer loads;
+
+    public UserLookupCache(@Value("${user.cache.ttl-seconds:30}") long ttlSeconds,
+                           @Value("${user.cache.negative-ttl-seconds:5}") long negativeTtlSeconds,
+                           @Value("${user.cache.max-entries:10000}") int maxEntries,
+                           MeterRegistry meterRegistry) {
+        this.ttlNanos = Duration.ofSeconds(ttlSeconds).toNanos();
+        this.negativeTtlNanos = Duration.ofSeconds(negativeTtlSeconds).toNanos();
+        this.maxEntries = maxEntries;
+
+        this.hits = Counter.builder("cache.gets").tag("cache", NAME).tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("cache.gets").tag("cache", NAME).tag("result", "miss").register(meterRegistry);
+        this.negativeHits = Counter.builder("cache.negative.hits").tag("cache", NAME).register(meterRegistry);
+        this.loads = Timer.builder("cache.loads").tag("cache", NAME).publishPercentileHistogram()
+                .register(meterRegistry);
+        Gauge.builder("cache.size", entries, Map::size).tag("cache", NAME).register(meterRegistry);
+    }
+
+    public Optional<User> get(String phone, Supplier<Optional<User>> loader) {
+        long now = System.nanoTime();
+        Cached cached = entries.get(phone);
+        if (cached != null && !cached.isExpired(now)) {
+            hits.increment();
+            if (cached.user() == null) {
+                negativeHits.increment();
+            }
+            return Optional.ofNullable(cached.user()).map(User::new);
+        }
+
+        long loadGeneration;
+        synchronized (this) {
+            loadGeneration = generation;
+        }
+
+        misses.increment();
+        Optional<User> loaded = loader.get();
+        long loadedAt = System.nanoTime();
+        loads.record(loadedAt - now, TimeUnit.NANOSECONDS);
+
+        long expiresAt = loadedAt + (loaded.isPresent() ? ttlNanos : negativeTtlNanos);
+        synchronized (this) {
+            if (generation == loadGeneration && hasRoom(phone, loadedAt)) {
+                entries.put(phone, new Cached(loaded.map(User::new).orElse(null), expiresAt));
+            }
+        }
+        return loaded;
+    }
+
+    public void invalidate(String phone) {
+        synchronized (this) {
+            generation++;
+            entries.remove(phone);
+        }
+    }
+
+    // Unknown phones are attacker-chosen, so the map is bounded. Once full, a bounded sample of
+    // entries is examined per miss instead of the whole map: expired ones are dropped and, if
+    // none were, the sampled entry closest to expiry (usually a negative one) makes room
+    private boolean hasRoom(String phone, long now) {
+        if (entries.size() < maxEntries || entries.containsKey(phone)) {
+            return true;
+        }
+        Iterator<Map.Entry<String, Cached>> sample = entries.entrySet().iterator();
+        Map.Entry<String, Cached> soonest = null;
+        boolean freed = false;
+        for (int i = 0; i < EVICTION_SAMPLE_SIZE && sample.hasNext(); i++) {
+            Map.Entry<String, Cached> candidate = sample.next();
+            if (candidate.getValue().isExpired(now)) {
+                sample.remove();
+                freed = true;
+            } else if (soonest == null || candidate.getValue().expiresAtNanos() - soonest.getValue().expiresAtNanos() < 0) {
+                soonest = candidate;
+            }
+        }
+        if (!freed && soonest != null) {
+            entries.remove(soonest.getKey(), soonest.getValue());
+        }
+        return entries.size() < maxEntries;
+    }
+
+    public Map<String, Object> stats() {
+        long hitCount = (long) hits.count();
+        long missCount = (long) misses.count();
+        return Map.of(
+                "hits", hitCount,
+                "negativeHits", (long) negativeHits.count(),
+                "misses", missCount,
+                "size", entries.size(),
+                "maxEntries", maxEntries,
+                "hitRatio", hitCount + missCount == 0 ? 0.0 : (double) hitCount / (hitCount + missCount),
+                "averageLoadMillis", loads.mean(TimeUnit.MILLISECONDS),
+                "maxLoadMillis", loads.max(TimeUnit.MILLISECONDS)
+        );
+    }
+}
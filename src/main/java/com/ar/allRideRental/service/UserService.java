@@ -18,20 +18,30 @@ public class UserService {
     
     @Autowired
     private BookingRepository bookingRepository;
+
+    @Autowired
+    private UserLookupCache userLookupCache;
     
+    // One cached lookup answers both "exists?" and "who?"
+    public Optional<User> findUser(String phoneNumber) {
+        return userLookupCache.get(phoneNumber, () -> userRepository.findByPhone(phoneNumber));
+    }
+
     public boolean checkUserExists(String phoneNumber) {
-        return userRepository.existsByPhone(phoneNumber);
+        return findUser(phoneNumber).isPresent();
     }
     
     public Optional<User> getUserByPhone(String phoneNumber) {
-        return userRepository.findByPhone(phoneNumber);
+        return findUser(phoneNumber);
     }
     
     public User createUser(String phone, String name, String email, LocalDate dob) {
         User user = new User(phone, name, email, dob);
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        userLookupCache.invalidate(phone);
+        return saved;
     }
-    
+
 //    public List<Booking> getUserBookings(String phoneNumber) {
 //        Optional<User> user = userRepository.findByPhone(phoneNumber);
 //        return user.map(u -> bookingRepository.findByUser(u))
@@ -45,7 +55,9 @@ public class UserService {
             user.setName(name);
             user.setEmail(email);
             user.setDob(dob);
-            return userRepository.save(user);
+            User saved = userRepository.save(user);
+            userLookupCache.invalidate(phone);
+            return saved;
         }
         throw new RuntimeException("User not found with phone: " + phone);
     }
@@ -0,0 +1,139 @@
+package com.ar.allRideRental.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+// Read-through cache of catalog query results (immutable lists) keyed by filter.
+// Least recently used entries are evicted once maxEntries is reached. Entries belong to one
+// CatalogRevision, so a catalog write on any instance drops them all; the TTL also bounds
+// writes that bypass the services (e.g. DataGenerator's JDBC batches).
+// Hits, misses and evictions are Micrometer meters (cache.gets / cache.evictions, cache=vehicle-catalog).
+@Component
+public class VehicleCatalogCache {
+
+    public static final String ALL = "all";
+    public static final String CITIES = "cities";
+    public static final String COUNTS = "counts";
+
+    private record Cached(List<?> value, long expiresAtNanos) {
+        boolean isExpired(long now) {
+            return now - expiresAtNanos >= 0;
+        }
+    }
+
+    private static final String NAME = "vehicle-catalog";
+
+    private final CatalogRevision catalogRevision;
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final LinkedHashMap<String, Cached> entries;
+
+    // Catalog revision of the cached entries; a load that raced with a newer one is returned but not cached
+    private long revision = 0;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+
+    public VehicleCatalogCache(@Value("${vehicle.cache.max-entries:256}") int maxEntries,
+                               @Value("${vehicle.cache.ttl-seconds:60}") long ttlSeconds,
+                               CatalogRevision catalogRevision,
+                               MeterRegistry meterRegistry) {
+        this.catalogRevision = catalogRevision;
+        this.maxEntries = maxEntries;
+        this.ttlNanos = Duration.ofSeconds(ttlSeconds).toNanos();
+        this.hits = cacheCounter(meterRegistry, "cache.gets", "result", "hit");
+        this.misses = cacheCounter(meterRegistry, "cache.gets", "result", "miss");
+        this.evictions = cacheCounter(meterRegistry, "cache.evictions", null, null);
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Cached> eldest) {
+                if (size() > VehicleCatalogCache.this.maxEntries) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+        Gauge.builder("cache.size", this, cache -> cache.size()).tag("cache", NAME).register(meterRegistry);
+    }
+
+    private static Counter cacheCounter(MeterRegistry meterRegistry, String name, String tag, String value) {
+        Counter.Builder builder = Counter.builder(name).tag("cache", NAME);
+        return (tag != null ? builder.tag(tag, value) : builder).register(meterRegistry);
+    }
+
+    public static String cityKey(String city) {
+        return "city:" + city;
+    }
+
+    public static String typeKey(String type) {
+        return "type:" + type;
+    }
+
+    public static String cityTypeKey(String city, String type) {
+        return "cityType:" + city + "|" + type;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> List<T> get(String key, Supplier<List<T>> loader) {
+        long loadRevision = catalogRevision.current();
+        synchronized (entries) {
+            followRevision(loadRevision);
+            Cached cached = entries.get(key);
+            if (cached != null && !cached.isExpired(System.nanoTime())) {
+                hits.increment();
+                return (List<T>) cached.value();
+            }
+        }
+
+        // Load outside the lock so a slow query doesn't block hits on other keys
+        misses.increment();
+        List<T> loaded = List.copyOf(loader.get());
+        synchronized (entries) {
+            if (revision == loadRevision) {
+                entries.put(key, new Cached(loaded, System.nanoTime() + ttlNanos));
+            }
+        }
+        return loaded;
+    }
+
+    // A newer revision drops every cached view. Keys hold the city/type as requested, and the
+    // database may match them case-insensitively (SQL Server collation), so the keys a vehicle
+    // appears under can't be derived from its stored values. Catalog writes are rare, and
+    // ALL/CITIES/COUNTS change anyway.
+    private void followRevision(long current) {
+        if (current > revision) {
+            revision = current;
+            entries.clear();
+        }
+    }
+
+    private int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public Map<String, Object> stats() {
+        long hitCount = (long) hits.count();
+        long missCount = (long) misses.count();
+        return Map.of(
+                "hits", hitCount,
+                "misses", missCount,
+                "evictions", (long) evictions.count(),
+                "size", size(),
+                "maxEntries", maxEntries,
+                "hitRatio", hitCount + missCount == 0 ? 0.0 : (double) hitCount / (hitCount + missCount)
+        );
+    }
+}
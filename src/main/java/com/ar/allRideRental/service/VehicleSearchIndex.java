@@ -0,0 +1,247 @@
+package com.ar.allRideRental.service;
+
+import com.ar.allRideRental.dto.VehicleSearchQuery;
+import com.ar.allRideRental.dto.VehicleSearchResult;
+import com.ar.allRideRental.model.Vehicle;
+import com.ar.allRideRental.repository.VehicleRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// In-memory inverted index over the available vehicles. Every vehicle gets an ordinal and
+// each (field, value) pair a BitSet of ordinals, so any filter combination is a few BitSet
+// AND/OR operations and facet counts come from the same bitsets.
+@Component
+public class VehicleSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(VehicleSearchIndex.class);
+
+    static final String CITY = "city";
+    static final String TYPE = "type";
+    static final String FUEL_TYPE = "fuelType";
+    static final String TRANSMISSION = "transmission";
+    static final String CAPACITY = "capacity";
+    static final String FEATURE = "features";
+
+    private static final List<String> FACET_FIELDS = List.of(CITY, TYPE, FUEL_TYPE, TRANSMISSION, CAPACITY, FEATURE);
+
+    @Autowired
+    private VehicleRepository vehicleRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Snapshot per ordinal, null for a free ordinal. Free ordinals are the clear bits of live
+    // below vehicles.size() and are reused first, so vehicle updates don't grow the bitsets.
+    private final List<Vehicle> vehicles = new ArrayList<>();
+    private final Map<Long, Integer> ordinalById = new HashMap<>();
+    private final BitSet live = new BitSet();
+    private final Map<String, Map<String, BitSet>> postings = new HashMap<>();
+    private double[] ratings = new double[64];
+
+    private volatile boolean loaded = false;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        lock.writeLock().lock();
+        try {
+            vehicles.clear();
+            ordinalById.clear();
+            live.clear();
+            postings.clear();
+            // Features come with the vehicles (entity graph), the transaction just keeps the session open
+            transactionTemplate.executeWithoutResult(status -> {
+                for (Vehicle vehicle : vehicleRepository.findAvailableWithFeatures()) {
+                    index(new Vehicle(vehicle));
+                }
+            });
+            loaded = true;
+            log.info("Vehicle search index loaded: {} vehicles", live.cardinality());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Call after every vehicle write with the saved vehicle (features must be loaded)
+    public void update(Vehicle vehicle) {
+        if (vehicle.getId() == null) {
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            unindex(vehicle.getId());
+            if (vehicle.isAvailable()) {
+                index(new Vehicle(vehicle));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public VehicleSearchResult search(VehicleSearchQuery query) {
+        if (!loaded) {
+            load();
+        }
+
+        lock.readLock().lock();
+        try {
+            BitSet matches = (BitSet) live.clone();
+            and(matches, anyOf(CITY, query.getCity()));
+            and(matches, anyOf(TYPE, query.getType()));
+            and(matches, anyOf(FUEL_TYPE, query.getFuelType()));
+            and(matches, anyOf(TRANSMISSION, query.getTransmission()));
+            and(matches, anyOf(CAPACITY, query.getCapacity() == null ? null
+                    : query.getCapacity().stream().map(String::valueOf).toList()));
+            if (query.isMatchAllFeatures() && query.getFeatures() != null) {
+                for (String feature : query.getFeatures()) {
+                    and(matches, anyOf(FEATURE, List.of(feature)));
+                }
+            } else {
+                and(matches, anyOf(FEATURE, query.getFeatures()));
+            }
+            if (query.getMinRating() != null || query.getMaxRating() != null) {
+                filterRating(matches, query.getMinRating(), query.getMaxRating());
+            }
+
+            List<Vehicle> results = new ArrayList<>(matches.cardinality());
+            for (int ordinal = matches.nextSetBit(0); ordinal >= 0; ordinal = matches.nextSetBit(ordinal + 1)) {
+                results.add(vehicles.get(ordinal));
+            }
+            return new VehicleSearchResult(results, results.size(), facets(matches));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void index(Vehicle vehicle) {
+        int ordinal = live.nextClearBit(0);
+        if (ordinal < vehicles.size()) {
+            vehicles.set(ordinal, vehicle);
+        } else {
+            vehicles.add(vehicle);
+        }
+        ordinalById.put(vehicle.getId(), ordinal);
+        live.set(ordinal);
+
+        if (ordinal >= ratings.length) {
+            ratings = Arrays.copyOf(ratings, ratings.length * 2);
+        }
+        ratings[ordinal] = vehicle.getRating() != null ? vehicle.getRating() : 0.0;
+
+        post(CITY, vehicle.getCity(), ordinal);
+        post(TYPE, vehicle.getType(), ordinal);
+        post(FUEL_TYPE, vehicle.getFuelType(), ordinal);
+        post(TRANSMISSION, vehicle.getTransmission(), ordinal);
+        post(CAPACITY, vehicle.getCapacity() != null ? String.valueOf(vehicle.getCapacity()) : null, ordinal);
+        if (vehicle.getFeatures() != null) {
+            vehicle.getFeatures().forEach(feature -> post(FEATURE, feature, ordinal));
+        }
+    }
+
+    // Clears only the postings the old snapshot was in
+    private void unindex(Long vehicleId) {
+        Integer ordinal = ordinalById.remove(vehicleId);
+        if (ordinal == null) {
+            return;
+        }
+
+        Vehicle old = vehicles.get(ordinal);
+        vehicles.set(ordinal, null);
+        live.clear(ordinal);
+        unpost(CITY, old.getCity(), ordinal);
+        unpost(TYPE, old.getType(), ordinal);
+        unpost(FUEL_TYPE, old.getFuelType(), ordinal);
+        unpost(TRANSMISSION, old.getTransmission(), ordinal);
+        unpost(CAPACITY, old.getCapacity() != null ? String.valueOf(old.getCapacity()) : null, ordinal);
+        if (old.getFeatures() != null) {
+            old.getFeatures().forEach(feature -> unpost(FEATURE, feature, ordinal));
+        }
+    }
+
+    private void post(String field, String value, int ordinal) {
+        if (value != null) {
+            postings.computeIfAbsent(field, key -> new HashMap<>())
+                    .computeIfAbsent(value, key -> new BitSet())
+                    .set(ordinal);
+        }
+    }
+
+    private void unpost(String field, String value, int ordinal) {
+        Map<String, BitSet> values = postings.get(field);
+        if (value == null || values == null) {
+            return;
+        }
+        BitSet bits = values.get(value);
+        if (bits != null) {
+            bits.clear(ordinal);
+            if (bits.isEmpty()) {
+                values.remove(value);
+            }
+        }
+    }
+
+    // Union of the postings of the given values; null means "no filter on this field"
+    private BitSet anyOf(String field, List<String> values) {
+        if (values == null || values.isEmpty()) {
+            return null;
+        }
+        BitSet union = new BitSet();
+        Map<String, BitSet> fieldPostings = postings.getOrDefault(field, Map.of());
+        for (String value : values) {
+            BitSet bits = fieldPostings.get(value);
+            if (bits != null) {
+                union.or(bits);
+            }
+        }
+        return union;
+    }
+
+    private static void and(BitSet matches, BitSet filter) {
+        if (filter != null) {
+            matches.and(filter);
+        }
+    }
+
+    private void filterRating(BitSet matches, Double minRating, Double maxRating) {
+        for (int ordinal = matches.nextSetBit(0); ordinal >= 0; ordinal = matches.nextSetBit(ordinal + 1)) {
+            double rating = ratings[ordinal];
+            if ((minRating != null && rating < minRating) || (maxRating != null && rating > maxRating)) {
+                matches.clear(ordinal);
+            }
+        }
+    }
+
+    private Map<String, Map<String, Integer>> facets(BitSet matches) {
+        Map<String, Map<String, Integer>> facets = new TreeMap<>();
+        for (String field : FACET_FIELDS) {
+            Map<String, Integer> counts = new TreeMap<>();
+            postings.getOrDefault(field, Map.of()).forEach((value, bits) -> {
+                BitSet intersection = (BitSet) bits.clone();
+                intersection.and(matches);
+                int count = intersection.cardinality();
+                if (count > 0) {
+                    counts.put(value, count);
+                }
+            });
+            facets.put(field, counts);
+        }
+        return facets;
+    }
+}
@@ -1,36 +1,99 @@
 package com.ar.allRideRental.service;
 
+import com.ar.allRideRental.dto.VehicleSearchQuery;
+import com.ar.allRideRental.dto.VehicleSearchResult;
 import com.ar.allRideRental.model.Vehicle;
 import com.ar.allRideRental.repository.VehicleRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.TreeMap;
 
 @Service
 public class VehicleService {
+
+    private static final String DEFAULT_VEHICLE_IMAGE_URL = "/images/default-vehicle.jpg";
+
+    private static final int FEATURE_QUERY_CHUNK = 1000;
+
+    private static final String UNKNOWN_BUCKET = "unknown";
     
     @Autowired
     private VehicleRepository vehicleRepository;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private VehicleCatalogCache catalogCache;
+
+    @Autowired
+    private VehicleSearchIndex searchIndex;
+
+    @Autowired
+    private CatalogRevision catalogRevision;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
     
+    // Catalog reads are served from VehicleCatalogCache as detached snapshots; features are
+    // attached from one IN query per snapshot instead of one select per vehicle.
+    @Transactional(readOnly = true)
     public List<Vehicle> getAllVehicles() {
-        return vehicleRepository.findByIsAvailableTrue();
+        return catalogCache.get(VehicleCatalogCache.ALL,
+                () -> snapshot(vehicleRepository.findByIsAvailableTrue()));
     }
     
+    @Transactional(readOnly = true)
     public List<Vehicle> getVehiclesByCity(String city) {
-        return vehicleRepository.findByCityAndIsAvailableTrue(city);
+        return catalogCache.get(VehicleCatalogCache.cityKey(city),
+                () -> snapshot(vehicleRepository.findByCityAndIsAvailableTrue(city)));
     }
     
+    @Transactional(readOnly = true)
     public List<Vehicle> getVehiclesByType(String type) {
-        return vehicleRepository.findByTypeAndIsAvailableTrue(type);
+        return catalogCache.get(VehicleCatalogCache.typeKey(type),
+                () -> snapshot(vehicleRepository.findByTypeAndIsAvailableTrue(type)));
     }
     
+    @Transactional(readOnly = true)
     public List<Vehicle> getVehiclesByCityAndType(String city, String type) {
-        return vehicleRepository.findByCityAndTypeAndIsAvailableTrue(city, type);
+        return catalogCache.get(VehicleCatalogCache.cityTypeKey(city, type),
+                () -> snapshot(vehicleRepository.findByCityAndTypeAndIsAvailableTrue(city, type)));
     }
     
+    // Vehicles in the city (optionally of the given type) that are free for the whole date range
+    @Transactional(readOnly = true)
+    public List<Vehicle> getVehiclesAvailableBetween(String city, String type, LocalDate startDate, LocalDate endDate) {
+        List<Vehicle> vehicles = type != null
+                ? getVehiclesByCityAndType(city, type)
+                : getVehiclesByCity(city);
+
+        HashSet<Long> freeVehicleIds = new HashSet<>(bookingService.filterAvailableVehicleIds(
+                vehicles.stream().map(Vehicle::getId).toList(), startDate, endDate));
+        return vehicles.stream()
+                .filter(vehicle -> freeVehicleIds.contains(vehicle.getId()))
+                .toList();
+    }
+
     public List<String> getAvailableCities() {
-        return vehicleRepository.findDistinctCities();
+        return catalogCache.get(VehicleCatalogCache.CITIES, vehicleRepository::findDistinctCities);
+    }
+
+    public VehicleSearchResult searchVehicles(VehicleSearchQuery query) {
+        return searchIndex.search(query);
+    }
+
+    public Map<String, Object> getCatalogCacheStats() {
+        return catalogCache.stats();
     }
     
     public Optional<Vehicle> getVehicleById(Long id) {
@@ -38,13 +101,14 @@ public class VehicleService {
     }
     
     public Vehicle createVehicle(Vehicle vehicle) {
-        return vehicleRepository.save(vehicle);
+        Vehicle savedVehicle = saveCatalogWrite(vehicle);
+        searchIndex.update(savedVehicle);
+        return savedVehicle;
     }
     
     public Vehicle updateVehicle(Long id, Vehicle vehicleDetails) {
         Vehicle vehicle = vehicleRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Vehicle not found with id: " + id));
-        
         vehicle.setName(vehicleDetails.getName());
         vehicle.setType(vehicleDetails.getType());
         vehicle.setPrice(vehicleDetails.getPrice());
@@ -58,32 +122,78 @@ public class VehicleService {
         vehicle.setFuelType(vehicleDetails.getFuelType());
         vehicle.setTransmission(vehicleDetails.getTransmission());
         
-        return vehicleRepository.save(vehicle);
+        Vehicle savedVehicle = saveCatalogWrite(vehicle);
+        searchIndex.update(savedVehicle);
+        return savedVehicle;
     }
     
     public void deleteVehicle(Long id) {
         Vehicle vehicle = vehicleRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Vehicle not found with id: " + id));
         vehicle.setAvailable(false);
-        vehicleRepository.save(vehicle);
+        saveCatalogWrite(vehicle);
+        searchIndex.update(vehicle);
     }
-    
-    public long getVehicleCountByType(String type) {
-        return vehicleRepository.countByTypeAndIsAvailableTrue(type);
+
+    // The shared catalog revision moves in the same transaction as the write, which also drops
+    // the catalog cache on every instance
+    private Vehicle saveCatalogWrite(Vehicle vehicle) {
+        return transactionTemplate.execute(status -> {
+            Vehicle savedVehicle = vehicleRepository.save(vehicle);
+            catalogRevision.bump();
+            return savedVehicle;
+        });
     }
-    
-    public long getVehicleCountByCity(String city) {
-        return vehicleRepository.countByCityAndIsAvailableTrue(city);
+
+    // Detached copies with their features loaded, safe to share between requests
+    private List<Vehicle> snapshot(List<Vehicle> vehicles) {
+        List<Long> vehicleIds = vehicles.stream().map(Vehicle::getId).toList();
+        Map<Long, List<String>> featuresByVehicle = new HashMap<>();
+        // Chunked to stay under the bind parameter limit of SQL Server
+        for (int from = 0; from < vehicleIds.size(); from += FEATURE_QUERY_CHUNK) {
+            List<Long> chunk = vehicleIds.subList(from, Math.min(from + FEATURE_QUERY_CHUNK, vehicleIds.size()));
+            for (Object[] row : vehicleRepository.findFeaturesByVehicleIdIn(chunk)) {
+                featuresByVehicle.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add((String) row[1]);
+            }
+        }
+        return vehicles.stream()
+                .map(vehicle -> new Vehicle(vehicle, featuresByVehicle.getOrDefault(vehicle.getId(), List.of())))
+                .toList();
     }
     
-    public long getVehicleCountByCityAndType(String city, String type) {
-        return vehicleRepository.countByCityAndTypeAndIsAvailableTrue(city, type);
+    // Full city x type matrix plus per-city / per-type totals, from one GROUP BY
+    public Map<String, Object> getVehicleCountMatrix() {
+        Map<String, Map<String, Long>> matrix = new TreeMap<>();
+        Map<String, Long> byCity = new TreeMap<>();
+        Map<String, Long> byType = new TreeMap<>();
+        long total = 0;
+        for (Object[] row : countRows()) {
+            // TreeMap rejects null keys; rows without a city or type are counted under "unknown"
+            String city = row[0] != null ? (String) row[0] : UNKNOWN_BUCKET;
+            String type = row[1] != null ? (String) row[1] : UNKNOWN_BUCKET;
+            long count = ((Number) row[2]).longValue();
+            matrix.computeIfAbsent(city, key -> new TreeMap<>()).put(type, count);
+            byCity.merge(city, count, Long::sum);
+            byType.merge(type, count, Long::sum);
+            total += count;
+        }
+        return Map.of(
+                "totalVehicles", total,
+                "byCity", byCity,
+                "byType", byType,
+                "matrix", matrix
+        );
+    }
+
+    // Cached with the catalog, so vehicle writes invalidate it
+    private List<Object[]> countRows() {
+        return catalogCache.get(VehicleCatalogCache.COUNTS, vehicleRepository::countAvailableByCityAndType);
     }
 
     // Add this method to get vehicle image URL
     public String getVehicleImageUrl(Long vehicleId) {
         return vehicleRepository.findById(vehicleId)
                 .map(Vehicle::getImageUrl)
-                .orElse("/images/default-vehicle.jpg"); // Fallback image
+                .orElse(DEFAULT_VEHICLE_IMAGE_URL); // Fallback image
     }
 }
\ No newline at end of file
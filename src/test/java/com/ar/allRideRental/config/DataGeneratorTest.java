@@ -0,0 +1,66 @@
+package com.ar.allRideRental.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Own database, so the generated rows don't leak into the other tests' shared H2 instance
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:datagentest;DB_CLOSE_DELAY=-1",
+        "app.datagen.enabled=true",
+        "app.datagen.vehicles=50",
+        "app.datagen.users=500",
+        "app.datagen.bookings=20000"
+})
+@ActiveProfiles("test")
+class DataGeneratorTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void generatesTheConfiguredVolume() {
+        // DataInitializer's 8 vehicles come on top of the generated fleet
+        assertEquals(58, count("SELECT COUNT(*) FROM vehicles"));
+        assertEquals(150, count("SELECT COUNT(*) FROM vehicle_features WHERE vehicle_id > 8"));
+        assertEquals(500, count("SELECT COUNT(*) FROM users"));
+        assertEquals(20000, count("SELECT COUNT(*) FROM bookings"));
+    }
+
+    @Test
+    void blockingBookingsOfAVehicleNeverOverlap() {
+        assertEquals(0, count("""
+                SELECT COUNT(*) FROM bookings a JOIN bookings b
+                  ON a.vehicle_id = b.vehicle_id AND a.id < b.id
+                 AND a.start_date <= b.end_date AND b.start_date <= a.end_date
+                WHERE a.status IN ('confirmed', 'active') AND b.status IN ('confirmed', 'active')
+                """));
+    }
+
+    @Test
+    void statusFollowsTheBookingDates() {
+        assertEquals(0, count("SELECT COUNT(*) FROM bookings WHERE end_date < CURRENT_DATE "
+                + "AND status NOT IN ('completed', 'cancelled')"));
+        assertEquals(0, count("SELECT COUNT(*) FROM bookings WHERE start_date > CURRENT_DATE "
+                + "AND status NOT IN ('confirmed', 'pending', 'cancelled')"));
+        assertEquals(0, count("SELECT COUNT(*) FROM bookings WHERE created_at > CURRENT_TIMESTAMP"));
+
+        // Every status is represented, and popular vehicles take a clearly larger share
+        List<Map<String, Object>> statuses = jdbcTemplate.queryForList("SELECT DISTINCT status FROM bookings");
+        assertEquals(5, statuses.size());
+        long busiest = count("SELECT MAX(c) FROM (SELECT COUNT(*) c FROM bookings GROUP BY vehicle_id) t");
+        assertTrue(busiest > 3 * 20000 / 50, "busiest vehicle has " + busiest + " bookings");
+    }
+
+    private long count(String sql) {
+        return jdbcTemplate.queryForObject(sql, Long.class);
+    }
+}
@@ -0,0 +1,201 @@
+package com.ar.allRideRental.config;
+
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.ServletRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "ratelimit.idle-evict-ms=0",
+        "ratelimit.endpoints.check-user.ip.capacity=3",
+        "ratelimit.endpoints.check-user.ip.refill-per-minute=0.01",
+        "ratelimit.endpoints.check-user.phone.capacity=100",
+        "ratelimit.endpoints.verify-otp.phone.capacity=2",
+        "ratelimit.endpoints.verify-otp.phone.refill-per-minute=0.01",
+        "ratelimit.endpoints.verify-otp.ip.capacity=100"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class RateLimitFilterTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private RateLimitFilter rateLimitFilter;
+
+    @Test
+    void ipBucketRejectsWithRetryAfterOnceEmpty() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(from("10.0.0.1", get("/api/auth/check-user/98765432" + (10 + i))))
+                    .andExpect(status().isOk());
+        }
+
+        // The browser client can read the 429 and its Retry-After
+        mockMvc.perform(from("10.0.0.1", get("/api/auth/check-user/9876543299").header("Origin", "http://localhost:3000")))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists("Retry-After"))
+                .andExpect(header().string("Access-Control-Allow-Origin", "http://localhost:3000"))
+                .andExpect(header().string("Access-Control-Expose-Headers", containsString("Retry-After")))
+                .andExpect(jsonPath("$.success").value(false));
+
+        // Another client is unaffected
+        mockMvc.perform(from("10.0.0.2", get("/api/auth/check-user/9876543299")))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void phoneBucketIsReadFromTheJsonBodyAcrossIps() throws Exception {
+        String body = "{\"phoneNumber\":\"9876500001\",\"otp\":\"000000\"}";
+        mockMvc.perform(from("10.0.1.1", post("/api/auth/verify-otp").contentType(MediaType.APPLICATION_JSON).content(body)))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(from("10.0.1.2", post("/api/auth/verify-otp").contentType(MediaType.APPLICATION_JSON).content(body)))
+                .andExpect(status().isBadRequest());
+
+        // Third attempt for the same phone is throttled even from a fresh IP
+        mockMvc.perform(from("10.0.1.3", post("/api/auth/verify-otp").contentType(MediaType.APPLICATION_JSON).content(body)))
+                .andExpect(status().isTooManyRequests());
+
+        // The controller still receives the body when the request is let through
+        mockMvc.perform(from("10.0.1.3", post("/api/auth/verify-otp").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"phoneNumber\":\"9876500002\",\"otp\":\"000000\"}")))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("OTP expired or not found. Please request a new OTP."));
+    }
+
+    @Test
+    void cachedBodyCanBeReadWithAReadListener() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/auth/send-otp");
+        request.setContent("{\"phoneNumber\":\"9876500004\"}".getBytes(StandardCharsets.UTF_8));
+        AtomicReference<ServletRequest> passedOn = new AtomicReference<>();
+        rateLimitFilter.doFilter(request, new MockHttpServletResponse(), (req, res) -> passedOn.set(req));
+
+        ServletInputStream input = passedOn.get().getInputStream();
+        ByteArrayOutputStream read = new ByteArrayOutputStream();
+        List<String> events = new ArrayList<>();
+        input.setReadListener(new ReadListener() {
+            @Override
+            public void onDataAvailable() throws IOException {
+                events.add("data");
+                while (input.isReady() && !input.isFinished()) {
+                    read.write(input.read());
+                }
+            }
+
+            @Override
+            public void onAllDataRead() {
+                events.add("done");
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                events.add("error");
+            }
+        });
+
+        assertEquals(List.of("data", "done"), events);
+        assertEquals("{\"phoneNumber\":\"9876500004\"}", read.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void oversizedBodiesReachTheControllerIntact() throws Exception {
+        byte[] large = ("{\"phoneNumber\":\"9876500005\",\"padding\":\"" + "x".repeat(20_000) + "\"}")
+                .getBytes(StandardCharsets.UTF_8);
+        AtomicReference<ServletRequest> passedOn = new AtomicReference<>();
+
+        // Declared too large: not buffered at all
+        MockHttpServletRequest declared = new MockHttpServletRequest("POST", "/api/auth/send-otp");
+        declared.setContent(large);
+        rateLimitFilter.doFilter(declared, new MockHttpServletResponse(), (req, res) -> passedOn.set(req));
+        assertSame(declared, passedOn.get());
+
+        // Unknown length (chunked): only the first MAX_BODY_BYTES + 1 are buffered, the rest is streamed after them
+        MockHttpServletRequest chunked = new MockHttpServletRequest("POST", "/api/auth/send-otp") {
+            @Override
+            public long getContentLengthLong() {
+                return -1;
+            }
+        };
+        chunked.setContent(large);
+        rateLimitFilter.doFilter(chunked, new MockHttpServletResponse(), (req, res) -> passedOn.set(req));
+        assertArrayEquals(large, passedOn.get().getInputStream().readAllBytes());
+    }
+
+    @Test
+    void fullIdleBucketsAreEvicted() throws Exception {
+        mockMvc.perform(from("10.0.2.1", get("/api/auth/users/check/9876500003"))).andExpect(status().isOk());
+        assertTrue(rateLimitFilter.bucketCount() > 0);
+
+        // users-check refills 30 tokens a minute, so its buckets are full again after a few seconds
+        Thread.sleep(3000);
+        int before = rateLimitFilter.bucketCount();
+        rateLimitFilter.evictIdleBuckets();
+        assertTrue(rateLimitFilter.bucketCount() < before);
+    }
+
+    @Test
+    void concurrentConsumersNeverOverdrawABucket() throws Exception {
+        TokenBucket bucket = new TokenBucket(100, 0, System.nanoTime());
+        AtomicInteger granted = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < 1000; i++) {
+                    if (bucket.tryConsume(System.nanoTime()) == 0) {
+                        granted.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        assertEquals(100, granted.get());
+    }
+
+    private static MockHttpServletRequestBuilder from(String ip, MockHttpServletRequestBuilder request) {
+        return request.with(servletRequest -> {
+            servletRequest.setRemoteAddr(ip);
+            return servletRequest;
+        });
+    }
+}
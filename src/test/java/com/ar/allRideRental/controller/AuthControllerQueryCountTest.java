@@ -0,0 +1,98 @@
+package com.ar.allRideRental.controller;
+
+import com.ar.allRideRental.model.Booking;
+import com.ar.allRideRental.model.User;
+import com.ar.allRideRental.repository.BookingRepository;
+import com.ar.allRideRental.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class AuthControllerQueryCountTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void userBookingsStatementCountDoesNotGrowWithBookings() throws Exception {
+        String fewPhone = createRenter("9000000001", 2);
+        String manyPhone = createRenter("9000000002", 24);
+
+        long few = countStatements("/api/auth/bookings/" + fewPhone, 2);
+        long many = countStatements("/api/auth/bookings/" + manyPhone, 24);
+
+        assertEquals(few, many);
+    }
+
+    @Test
+    void userProfileStatementCountDoesNotGrowWithBookings() throws Exception {
+        String fewPhone = createRenter("9000000003", 2);
+        String manyPhone = createRenter("9000000004", 24);
+
+        long few = countStatements("/api/auth/profile/" + fewPhone, -1);
+        long many = countStatements("/api/auth/profile/" + manyPhone, -1);
+
+        assertEquals(few, many);
+    }
+
+    private long countStatements(String url, int expectedBookings) throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        var result = mockMvc.perform(get(url)).andExpect(status().isOk());
+        if (expectedBookings >= 0) {
+            result.andExpect(jsonPath("$.bookings.length()").value(expectedBookings))
+                    .andExpect(jsonPath("$.bookings[0].vehicleImageUrl").isNotEmpty());
+        }
+        return statistics.getPrepareStatementCount();
+    }
+
+    // A user with the given number of bookings spread over all seeded vehicles
+    private String createRenter(String phone, int bookings) {
+        userRepository.save(new User(phone, "Renter " + phone, null, LocalDate.of(1990, 1, 1)));
+
+        List<Booking> rows = new ArrayList<>();
+        LocalDate start = LocalDate.now().minusYears(1);
+        for (int i = 0; i < bookings; i++) {
+            Booking booking = new Booking();
+            booking.setVehicleId((long) (i % 8) + 1);
+            booking.setVehicleName("Vehicle " + ((i % 8) + 1));
+            booking.setCustomerPhone(phone);
+            booking.setCustomerName("Renter " + phone);
+            booking.setStartDate(start.plusDays(i * 3L));
+            booking.setEndDate(start.plusDays(i * 3L + 1));
+            booking.setTotalAmount(1000.0);
+            booking.setStatus("completed");
+            rows.add(booking);
+        }
+        bookingRepository.saveAll(rows);
+        return phone;
+    }
+}
@@ -0,0 +1,125 @@
+package com.ar.allRideRental.controller;
+
+import com.ar.allRideRental.model.Booking;
+import com.ar.allRideRental.repository.BookingRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "ratelimit.enabled=false")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class BookingExportTest {
+
+    // More than one flush batch of BookingExportService
+    private static final int BOOKINGS = 1200;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private RequestMappingHandlerAdapter handlerAdapter;
+
+    @BeforeEach
+    void seedBookings() {
+        if (bookingRepository.count() >= BOOKINGS) {
+            return;
+        }
+        LocalDate start = LocalDate.now().minusYears(5);
+        List<Booking> bookings = new ArrayList<>();
+        for (int i = 0; i < BOOKINGS; i++) {
+            Booking booking = new Booking();
+            booking.setVehicleId(i % 8 + 1L);
+            booking.setVehicleName("Export Vehicle");
+            booking.setCustomerPhone("9800000000");
+            booking.setCustomerName("Export");
+            booking.setStartDate(start.plusDays(i));
+            booking.setEndDate(start.plusDays(i));
+            booking.setTotalAmount(1000.0);
+            booking.setStatus("completed");
+            bookings.add(booking);
+        }
+        bookingRepository.saveAll(bookings);
+    }
+
+    @Test
+    void exportStreamsOneLinePerBooking() throws Exception {
+        MvcResult started = startExport("/api/bookings/export");
+
+        byte[] body = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "application/x-ndjson"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        assertNdjson(new String(body, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void gzipExportDecompressesToTheSameLines() throws Exception {
+        MvcResult started = startExport("/api/bookings/export?gzip=true");
+
+        byte[] body = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        assertNdjson(gunzip(body));
+    }
+
+    @Test
+    void longTimeoutIsScopedToTheExport() {
+        // Other async requests keep the container default
+        assertNull(ReflectionTestUtils.getField(handlerAdapter, "asyncRequestTimeout"));
+    }
+
+    // The export gets its own timeout so the container's 30s default does not cut it off
+    private MvcResult startExport(String url) throws Exception {
+        MvcResult started = mockMvc.perform(get(url))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        assertEquals(Duration.ofMinutes(30).toMillis(), started.getRequest().getAsyncContext().getTimeout());
+        return started;
+    }
+
+    private void assertNdjson(String body) {
+        String[] lines = body.split("\n");
+        assertEquals(bookingRepository.count(), lines.length);
+        for (String line : lines) {
+            assertTrue(line.startsWith("{") && line.endsWith("}"), line);
+        }
+    }
+
+    private static String gunzip(byte[] compressed) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
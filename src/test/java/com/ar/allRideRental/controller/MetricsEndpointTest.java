@@ -0,0 +1,47 @@
+package com.ar.allRideRental.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "ratelimit.enabled=false")
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@ActiveProfiles("test")
+class MetricsEndpointTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void prometheusEndpointExposesRequestRepositoryPoolAndCacheMetrics() throws Exception {
+        mockMvc.perform(get("/api/vehicles")).andExpect(status().isOk());
+        mockMvc.perform(get("/api/vehicles")).andExpect(status().isOk());
+        mockMvc.perform(get("/api/auth/check-user/9300000001")).andExpect(status().isOk());
+
+        String scrape = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertContains(scrape, "http_server_requests_seconds_bucket{");
+        assertContains(scrape, "uri=\"/api/auth/check-user/{phoneNumber}\"");
+        assertContains(scrape, "spring_data_repository_invocations_seconds_bucket{");
+        assertContains(scrape, "method=\"findByPhone\"");
+        assertContains(scrape, "hikaricp_connections_active");
+        assertContains(scrape, "cache_gets_total{cache=\"user-lookup\",result=\"miss\"");
+        assertContains(scrape, "cache_gets_total{cache=\"vehicle-catalog\",result=\"hit\"");
+        assertContains(scrape, "cache_loads_seconds_bucket{cache=\"user-lookup\"");
+    }
+
+    private static void assertContains(String scrape, String expected) {
+        assertTrue(scrape.contains(expected), "missing " + expected);
+    }
+}
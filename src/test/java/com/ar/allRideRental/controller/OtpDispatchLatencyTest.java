@@ -0,0 +1,131 @@
+package com.ar.allRideRental.controller;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// A stub provider answering after 2 s must not tie up the (deliberately tiny) Tomcat pool
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "server.tomcat.threads.max=4")
+@ActiveProfiles("test")
+class OtpDispatchLatencyTest {
+
+    private static final int SENDS = 16;
+
+    private static final AtomicInteger providerCalls = new AtomicInteger();
+    private static final HttpServer provider = startSlowProvider();
+
+    @LocalServerPort
+    private int port;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @DynamicPropertySource
+    static void providerUrl(DynamicPropertyRegistry registry) {
+        registry.add("msg91.whatsapp.url",
+                () -> "http://localhost:" + provider.getAddress().getPort() + "/api/v5/whatsapp");
+    }
+
+    @AfterAll
+    static void stopProvider() {
+        provider.stop(0);
+    }
+
+    @Test
+    void sendOtpReturnsBeforeTheProviderAnswers() throws Exception {
+        long started = System.nanoTime();
+        List<CompletableFuture<HttpResponse<String>>> sends = new ArrayList<>();
+        for (int i = 0; i < SENDS; i++) {
+            sends.add(client.sendAsync(post("/api/auth/send-otp", "{\"phoneNumber\":\"98000000" + String.format("%02d", i) + "\"}"),
+                    HttpResponse.BodyHandlers.ofString()));
+        }
+        for (CompletableFuture<HttpResponse<String>> send : sends) {
+            HttpResponse<String> response = send.join();
+            assertEquals(200, response.statusCode(), response.body());
+            assertTrue(response.body().contains("PENDING"), response.body());
+        }
+
+        // Other endpoints keep being served while every provider call is still outstanding
+        HttpResponse<String> cities = client.send(get("/api/vehicles/cities"), HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, cities.statusCode());
+        long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+        assertTrue(elapsedMillis < 2000, "requests waited for the provider: " + elapsedMillis + " ms");
+
+        // Delivery outcome shows up through the poll endpoint once the provider answers
+        for (int i = 0; i < SENDS; i++) {
+            String phone = "98000000" + String.format("%02d", i);
+            assertTrue(awaitStatus(phone, "SENT", 10_000), "no SENT status for " + phone);
+        }
+        assertEquals(SENDS, providerCalls.get());
+    }
+
+    private boolean awaitStatus(String phone, String status, long timeoutMillis) throws Exception {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        while (System.currentTimeMillis() < deadline) {
+            HttpResponse<String> response = client.send(get("/api/auth/otp-status/" + phone), HttpResponse.BodyHandlers.ofString());
+            if (response.body().contains(status)) {
+                return true;
+            }
+            Thread.sleep(100);
+        }
+        return false;
+    }
+
+    private HttpRequest post(String path, String json) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).GET().build();
+    }
+
+    private static HttpServer startSlowProvider() {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.setExecutor(Executors.newFixedThreadPool(SENDS));
+            server.createContext("/api/v5/whatsapp", exchange -> {
+                providerCalls.incrementAndGet();
+                try {
+                    Thread.sleep(2000);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                byte[] body = "{\"type\":\"success\",\"message\":\"queued\"}".getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            });
+            server.start();
+            return server;
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
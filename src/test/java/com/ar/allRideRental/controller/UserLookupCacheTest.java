@@ -0,0 +1,135 @@
+package com.ar.allRideRental.controller;
+
+import com.ar.allRideRental.model.User;
+import com.ar.allRideRental.service.UserLookupCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "ratelimit.enabled=false")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class UserLookupCacheTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void checkUserIsOneQueryAndRepeatsAreServedFromCache() throws Exception {
+        String phone = "9100000001";
+        createUser(phone, "Asha");
+
+        assertEquals(1, checkUser(phone, true));
+        assertEquals(0, checkUser(phone, true));
+        mockMvc.perform(get("/api/auth/users/check/" + phone))
+                .andExpect(jsonPath("$.user.name").value("Asha"));
+    }
+
+    @Test
+    void absentPhoneIsCachedUntilCreateUserInvalidatesIt() throws Exception {
+        String phone = "9100000002";
+
+        assertEquals(1, checkUser(phone, false));
+        assertEquals(0, checkUser(phone, false));
+
+        createUser(phone, "Ravi");
+        assertEquals(1, checkUser(phone, true));
+    }
+
+    @Test
+    void profileUpdateIsVisibleImmediately() throws Exception {
+        String phone = "9100000003";
+        createUser(phone, "Meera");
+        checkUser(phone, true);
+
+        mockMvc.perform(put("/api/auth/update-profile").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"phone\":\"" + phone + "\",\"name\":\"Meera K\",\"email\":\"m@example.com\",\"dob\":\"1991-02-03\"}"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/auth/check-user/" + phone))
+                .andExpect(jsonPath("$.user.name").value("Meera K"));
+        mockMvc.perform(get("/actuator/usercache"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.hitRatio").isNumber())
+                .andExpect(jsonPath("$.averageLoadMillis").isNumber());
+        // No longer on the public auth API
+        mockMvc.perform(get("/api/auth/cache/stats"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void fullCacheEvictsTheEntryClosestToExpiry() {
+        UserLookupCache cache = new UserLookupCache(30, 5, 3, new SimpleMeterRegistry());
+        AtomicInteger loads = new AtomicInteger();
+        Supplier<Optional<User>> present = () -> {
+            loads.incrementAndGet();
+            return Optional.of(new User("9100000009", "Cached", null, null));
+        };
+        Supplier<Optional<User>> absent = () -> {
+            loads.incrementAndGet();
+            return Optional.empty();
+        };
+        cache.get("9100000010", present);
+        cache.get("9100000011", absent);
+        cache.get("9100000012", present);
+
+        // Full: the negative entry goes, the new lookup is cached
+        cache.get("9100000013", present);
+        assertEquals(4, loads.get());
+        cache.get("9100000010", present);
+        cache.get("9100000013", present);
+        assertEquals(4, loads.get());
+        cache.get("9100000011", absent);
+        assertEquals(5, loads.get());
+    }
+
+    @Test
+    void callersGetTheirOwnDetachedCopy() {
+        UserLookupCache cache = new UserLookupCache(30, 5, 10, new SimpleMeterRegistry());
+        User loaded = new User("9100000020", "Original", null, null);
+        cache.get("9100000020", () -> Optional.of(loaded));
+        loaded.setName("Changed by the loading request");
+
+        User first = cache.get("9100000020", Optional::empty).orElseThrow();
+        first.setName("Changed by a caller");
+
+        assertEquals("Original", cache.get("9100000020", Optional::empty).orElseThrow().getName());
+    }
+
+    private long checkUser(String phone, boolean exists) throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        mockMvc.perform(get("/api/auth/check-user/" + phone))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.exists").value(exists));
+        return statistics.getPrepareStatementCount();
+    }
+
+    private void createUser(String phone, String name) throws Exception {
+        mockMvc.perform(post("/api/auth/create-user").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"phone\":\"" + phone + "\",\"name\":\"" + name + "\",\"dob\":\"1990-01-01\"}"))
+                .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,138 @@
+package com.ar.allRideRental.service;
+
+import com.ar.allRideRental.model.Booking;
+import com.ar.allRideRental.model.BookingRequest;
+import com.ar.allRideRental.repository.BookingRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class BookingServiceConcurrencyTest {
+
+    private static final int THREADS = 16;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Test
+    void concurrentBookingsOfSameVehicleAdmitExactlyOne() throws Exception {
+        LocalDate start = LocalDate.now().plusDays(40);
+        LocalDate end = start.plusDays(3);
+
+        List<Boolean> results = runConcurrently(THREADS,
+                i -> () -> bookingService.createBooking(request(1L, start.plusDays(i % 2), end)));
+
+        assertEquals(1, results.stream().filter(Boolean::booleanValue).count());
+        assertEquals(1, bookingRepository.findOverlappingBookings(1L, start, end.plusDays(1)).size());
+    }
+
+    // A booking admitted by another instance is in the database but not in this instance's index
+    @Test
+    void bookingMissingFromLocalIndexStillBlocksOverlap() {
+        LocalDate start = LocalDate.now().plusDays(80);
+        LocalDate end = start.plusDays(2);
+
+        BookingRequest other = request(2L, start, end);
+        Booking existing = new Booking();
+        existing.setVehicleId(other.getVehicleId());
+        existing.setVehicleName(other.getVehicleName());
+        existing.setCustomerPhone(other.getCustomerPhone());
+        existing.setCustomerName(other.getCustomerName());
+        existing.setStartDate(start);
+        existing.setEndDate(end);
+        existing.setTotalAmount(other.getTotalAmount());
+        existing.setStatus("confirmed");
+        bookingRepository.save(existing);
+
+        RuntimeException e = assertThrows(RuntimeException.class,
+                () -> bookingService.createBooking(request(2L, start.plusDays(1), end.plusDays(1))));
+        assertEquals("Vehicle is already booked for the selected dates", e.getMessage());
+    }
+
+    @Test
+    void concurrentStatusChangesOfOneBookingAreCountedOnce() throws Exception {
+        LocalDate start = LocalDate.now().plusDays(100);
+        Booking booking = bookingService.createBooking(request(3L, start, start.plusDays(1)));
+        long completedBefore = (long) bookingService.getBookingStatistics().get("completedBookings");
+
+        runConcurrently(THREADS, i -> () -> bookingService.updateBookingStatus(booking.getId(), "completed"));
+
+        Map<String, Object> stats = bookingService.getBookingStatistics();
+        assertEquals(completedBefore + 1, stats.get("completedBookings"));
+        assertEquals(bookingRepository.countByStatus("completed"), stats.get("completedBookings"));
+    }
+
+    @Test
+    void concurrentBookingsOfDifferentVehiclesAllSucceed() throws Exception {
+        LocalDate start = LocalDate.now().plusDays(60);
+        LocalDate end = start.plusDays(2);
+
+        List<Boolean> results = runConcurrently(8, i -> () -> bookingService.createBooking(request((long) i + 1, start, end)));
+
+        assertEquals(8, results.stream().filter(Boolean::booleanValue).count());
+    }
+
+    // Runs the actions released together; true for each one that returned a saved booking
+    private List<Boolean> runConcurrently(int threads, IntFunction<Supplier<Booking>> actions) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CyclicBarrier barrier = new CyclicBarrier(threads);
+        try {
+            List<Future<Boolean>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                Supplier<Booking> action = actions.apply(i);
+                futures.add(executor.submit(() -> {
+                    barrier.await();
+                    try {
+                        Booking booking = action.get();
+                        return booking.getId() != null;
+                    } catch (RuntimeException e) {
+                        return false;
+                    }
+                }));
+            }
+
+            List<Boolean> results = new ArrayList<>();
+            for (Future<Boolean> future : futures) {
+                results.add(future.get(30, TimeUnit.SECONDS));
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private BookingRequest request(Long vehicleId, LocalDate startDate, LocalDate endDate) {
+        BookingRequest request = new BookingRequest();
+        request.setVehicleId(vehicleId);
+        request.setVehicleName("Test Vehicle " + vehicleId);
+        request.setCustomerPhone("9876500000");
+        request.setCustomerName("Load Test");
+        request.setStartDate(startDate);
+        request.setEndDate(endDate);
+        request.setInsurance("basic");
+        request.setTotalAmount(1000.0);
+        request.setStatus("confirmed");
+        return request;
+    }
+}
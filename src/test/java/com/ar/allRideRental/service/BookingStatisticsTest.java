@@ -0,0 +1,60 @@
+package com.ar.allRideRental.service;
+
+import com.ar.allRideRental.repository.BookingRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BookingStatisticsTest {
+
+    @Test
+    void failedStartupReconcileIsReportedAndNotRetriedByReads() {
+        BookingRepository repository = mock(BookingRepository.class);
+        when(repository.countAndSumByStatus()).thenThrow(new RuntimeException("database unavailable"));
+        BookingStatistics statistics = statistics(repository);
+
+        statistics.onApplicationReady();
+        statistics.snapshot();
+        Map<String, Object> stats = statistics.snapshot();
+
+        verify(repository, times(1)).countAndSumByStatus();
+        assertNull(stats.get("lastReconciledAt"));
+        assertNull(stats.get("secondsSinceReconcile"));
+        assertNotNull(stats.get("lastReconcileFailedAt"));
+        assertEquals(0L, stats.get("totalBookings"));
+    }
+
+    @Test
+    void successfulReconcileClearsTheFailure() {
+        BookingRepository repository = mock(BookingRepository.class);
+        when(repository.countAndSumByStatus())
+                .thenThrow(new RuntimeException("database unavailable"))
+                .thenReturn(List.<Object[]>of(new Object[]{"completed", 3L, 4500.0}));
+        BookingStatistics statistics = statistics(repository);
+
+        statistics.onApplicationReady();
+        statistics.reconcile();
+        Map<String, Object> stats = statistics.snapshot();
+
+        assertNotNull(stats.get("lastReconciledAt"));
+        assertNull(stats.get("lastReconcileFailedAt"));
+        assertEquals(3L, stats.get("completedBookings"));
+        assertEquals(4500.0, stats.get("totalRevenue"));
+    }
+
+    private static BookingStatistics statistics(BookingRepository repository) {
+        BookingStatistics statistics = new BookingStatistics();
+        ReflectionTestUtils.setField(statistics, "bookingRepository", repository);
+        return statistics;
+    }
+}
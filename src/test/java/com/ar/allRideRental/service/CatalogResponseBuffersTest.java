@@ -0,0 +1,58 @@
+package com.ar.allRideRental.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CatalogResponseBuffersTest {
+
+    private final CatalogRevision catalogRevision = mock(CatalogRevision.class);
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void viewIsRebuiltWhenTheSharedRevisionMoves() {
+        CatalogResponseBuffers buffers = buffers(60);
+        when(catalogRevision.current()).thenReturn(1L);
+        CatalogResponseBuffers.SerializedView first = buffers.get("vehicles", this::load);
+        assertSame(first, buffers.get("vehicles", this::load));
+
+        // A write committed on another instance
+        when(catalogRevision.current()).thenReturn(2L);
+        CatalogResponseBuffers.SerializedView rebuilt = buffers.get("vehicles", this::load);
+
+        assertEquals(2L, rebuilt.revision());
+        assertEquals("[2]", new String(rebuilt.json(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void viewOlderThanTheMaxAgeIsRebuilt() {
+        CatalogResponseBuffers buffers = buffers(0);
+        when(catalogRevision.current()).thenReturn(1L);
+
+        buffers.get("vehicles", this::load);
+        buffers.get("vehicles", this::load);
+
+        assertEquals(2, loads.get());
+    }
+
+    private List<Integer> load() {
+        return List.of(loads.incrementAndGet());
+    }
+
+    private CatalogResponseBuffers buffers(long maxAgeSeconds) {
+        CatalogResponseBuffers buffers = new CatalogResponseBuffers();
+        ReflectionTestUtils.setField(buffers, "catalogRevision", catalogRevision);
+        ReflectionTestUtils.setField(buffers, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(buffers, "maxAgeSeconds", maxAgeSeconds);
+        return buffers;
+    }
+}
@@ -0,0 +1,76 @@
+package com.ar.allRideRental.service;
+
+import com.ar.allRideRental.model.Vehicle;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class CatalogRevisionTest {
+
+    @Autowired
+    private CatalogRevision catalogRevision;
+
+    @Autowired
+    private VehicleService vehicleService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    // A second instance on the same database that takes none of the writes
+    private CatalogRevision otherInstance;
+
+    @BeforeEach
+    void startOtherInstance() {
+        otherInstance = new CatalogRevision(jdbcTemplate, 0);
+        otherInstance.createTable();
+    }
+
+    @Test
+    void everyInstanceIssuesTheSameEtag() {
+        assertEquals(catalogRevision.etag("vehicles"), otherInstance.etag("vehicles"));
+    }
+
+    @Test
+    void writeOnOneInstanceChangesTheEtagOnTheOther() {
+        String before = otherInstance.etag("vehicles");
+
+        vehicleService.createVehicle(new Vehicle("Revision Car", "Car", "1500", List.of("AC"), 4.5,
+                "Revisionville", "/images/test.jpg"));
+
+        assertNotEquals(before, otherInstance.etag("vehicles"));
+        assertEquals(catalogRevision.etag("vehicles"), otherInstance.etag("vehicles"));
+    }
+
+    @Test
+    void rolledBackWriteKeepsTheRevision() {
+        long before = otherInstance.current();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            catalogRevision.bump();
+            status.setRollbackOnly();
+        });
+
+        assertEquals(before, otherInstance.current());
+        assertEquals(before, catalogRevision.current());
+    }
+
+    @Test
+    void bumpOutsideATransactionIsRejected() {
+        assertThrows(IllegalStateException.class, () -> catalogRevision.bump());
+    }
+}
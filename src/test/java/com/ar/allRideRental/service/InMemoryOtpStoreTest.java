@@ -0,0 +1,97 @@
+package com.ar.allRideRental.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// The ticker thread is never started; the wheel is advanced by hand so the tests are deterministic
+class InMemoryOtpStoreTest {
+
+    @Test
+    void entryIsDroppedWhenTheWheelReachesItsSlot() throws Exception {
+        InMemoryOtpStore store = new InMemoryOtpStore(Duration.ofMillis(100), Duration.ZERO, Duration.ofMillis(10));
+        store.issue("9000000001", () -> "111111");
+
+        store.advance();
+        assertEquals(1, store.size());
+
+        Thread.sleep(200);
+        store.advance();
+        assertEquals(0, store.size());
+        assertTrue(store.get("9000000001").isEmpty());
+    }
+
+    @Test
+    void replacedEntryStaysWhenTheOldSlotExpires() throws Exception {
+        InMemoryOtpStore store = new InMemoryOtpStore(Duration.ofMillis(300), Duration.ZERO, Duration.ofMillis(10));
+        OtpStore.Entry first = store.issue("9000000002", () -> "111111").entry();
+
+        Thread.sleep(150);
+        OtpStore.Entry second = store.issue("9000000002", () -> "222222").entry();
+
+        // Past the first deadline, well before the second one
+        Thread.sleep(200);
+        store.advance();
+        assertEquals(second.getIssueId(), store.get("9000000002").orElseThrow().getIssueId());
+
+        // Late writes for the old entry must not touch the new one either
+        store.remove(first);
+        assertEquals(0, store.recordAttempt(first));
+        assertEquals(second.getIssueId(), store.get("9000000002").orElseThrow().getIssueId());
+
+        Thread.sleep(250);
+        store.advance();
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    void resendWithinIntervalKeepsTheCurrentEntry() {
+        InMemoryOtpStore store = new InMemoryOtpStore(Duration.ofMinutes(5), Duration.ofSeconds(30), Duration.ofSeconds(1));
+        OtpStore.Issue first = store.issue("9000000003", () -> "111111");
+        OtpStore.Issue again = store.issue("9000000003", () -> "222222");
+
+        assertTrue(first.issued());
+        assertFalse(again.issued());
+        assertTrue(again.retryAfterSeconds() > 0 && again.retryAfterSeconds() <= 30);
+        assertEquals(first.entry().getIssueId(), store.get("9000000003").orElseThrow().getIssueId());
+        assertEquals("111111", store.get("9000000003").orElseThrow().getOtp());
+    }
+
+    @Test
+    void attemptsAreCountedAtomically() throws Exception {
+        InMemoryOtpStore store = new InMemoryOtpStore(Duration.ofMinutes(5), Duration.ofSeconds(30), Duration.ofSeconds(1));
+        OtpStore.Entry entry = store.issue("9000000004", () -> "111111").entry();
+
+        int threads = 8;
+        int attemptsPerThread = 5_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < attemptsPerThread; i++) {
+                    store.recordAttempt(entry);
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        assertEquals(threads * attemptsPerThread, store.get("9000000004").orElseThrow().getAttempts());
+    }
+}
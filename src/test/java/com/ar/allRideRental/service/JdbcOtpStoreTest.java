@@ -0,0 +1,128 @@
+package com.ar.allRideRental.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "otp.store=jdbc")
+@ActiveProfiles("test")
+class JdbcOtpStoreTest {
+
+    @Autowired
+    private OtpStore otpStore;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void jdbcStoreIsSelectedByProperty() {
+        assertInstanceOf(JdbcOtpStore.class, otpStore);
+    }
+
+    @Test
+    void tableAndExpiryIndexAreCreatedOnStartup() {
+        // A second instance starting against the existing table is fine
+        new JdbcOtpStore(jdbcTemplate, transactionTemplate, 5, 30).createTable();
+
+        Integer indexes = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM INFORMATION_SCHEMA.INDEXES WHERE INDEX_NAME = 'IDX_OTP_EXPIRES_AT'", Integer.class);
+        assertEquals(1, indexes);
+    }
+
+    @Test
+    void otpIssuedOnOneInstanceIsVisibleOnAnother() {
+        JdbcOtpStore otherInstance = new JdbcOtpStore(jdbcTemplate, transactionTemplate, 5, 30);
+
+        OtpStore.Issue issue = otpStore.issue("9600000001", () -> "123456");
+        assertTrue(issue.issued());
+
+        OtpStore.Entry seen = otherInstance.get("9600000001").orElseThrow();
+        assertEquals("123456", seen.getOtp());
+        assertEquals(issue.entry().getIssueId(), seen.getIssueId());
+
+        // The resend window is enforced across instances too
+        OtpStore.Issue again = otherInstance.issue("9600000001", () -> "654321");
+        assertFalse(again.issued());
+        assertTrue(again.retryAfterSeconds() > 0 && again.retryAfterSeconds() <= 30);
+        assertEquals("123456", otpStore.get("9600000001").orElseThrow().getOtp());
+    }
+
+    @Test
+    void attemptsAndDeliveryApplyOnlyToTheCurrentIssue() {
+        JdbcOtpStore noResendWindow = new JdbcOtpStore(jdbcTemplate, transactionTemplate, 5, 0);
+        OtpStore.Entry first = noResendWindow.issue("9600000002", () -> "111111").entry();
+
+        assertEquals(1, noResendWindow.recordAttempt(first));
+        assertEquals(2, noResendWindow.recordAttempt(first));
+        noResendWindow.markDelivery(first, OtpStore.DeliveryStatus.SENT);
+        assertEquals(OtpStore.DeliveryStatus.SENT, noResendWindow.get("9600000002").orElseThrow().getDeliveryStatus());
+
+        // Upsert replaces the row and resets its counters
+        OtpStore.Entry second = noResendWindow.issue("9600000002", () -> "222222").entry();
+        OtpStore.Entry current = noResendWindow.get("9600000002").orElseThrow();
+        assertEquals(second.getIssueId(), current.getIssueId());
+        assertEquals(0, current.getAttempts());
+        assertEquals(OtpStore.DeliveryStatus.PENDING, current.getDeliveryStatus());
+
+        // Writes naming the replaced issue are ignored
+        assertEquals(0, noResendWindow.recordAttempt(first));
+        noResendWindow.markDelivery(first, OtpStore.DeliveryStatus.FAILED);
+        noResendWindow.remove(first);
+        assertEquals(OtpStore.DeliveryStatus.PENDING, noResendWindow.get("9600000002").orElseThrow().getDeliveryStatus());
+
+        noResendWindow.remove(second);
+        assertTrue(noResendWindow.get("9600000002").isEmpty());
+    }
+
+    @Test
+    void concurrentAttemptsEachSeeTheirOwnCount() throws Exception {
+        OtpStore.Entry entry = new JdbcOtpStore(jdbcTemplate, transactionTemplate, 5, 0)
+                .issue("9600000004", () -> "444444").entry();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<Integer>> futures = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            futures.add(executor.submit(() -> otpStore.recordAttempt(entry)));
+        }
+        Set<Integer> counts = new HashSet<>();
+        for (Future<Integer> future : futures) {
+            counts.add(future.get());
+        }
+        executor.shutdown();
+
+        assertEquals(200, counts.size());
+        assertEquals(200, otpStore.get("9600000004").orElseThrow().getAttempts());
+    }
+
+    @Test
+    void sweepDeletesOnlyExpiredRows() {
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < 5; i++) {
+            jdbcTemplate.update("INSERT INTO otp_codes (phone, otp, issue_id, issued_at, expires_at, attempts, delivery_status) "
+                    + "VALUES (?, '000000', ?, ?, ?, 0, 'SENT')", "95000000" + i, i, now - 600_000, now - 300_000);
+        }
+        otpStore.issue("9600000003", () -> "333333");
+
+        assertEquals(5, ((JdbcOtpStore) otpStore).sweepExpired());
+        assertTrue(otpStore.get("9600000003").isPresent());
+        assertTrue(otpStore.get("950000000").isEmpty());
+    }
+}
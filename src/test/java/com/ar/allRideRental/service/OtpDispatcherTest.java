@@ -0,0 +1,190 @@
+package com.ar.allRideRental.service;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+// Runs the pipeline against an in-process fake of both MSG91 endpoints
+@SpringBootTest(properties = {
+        "otp.resend.interval-seconds=0",
+        "otp.dispatch.max-in-flight=1",
+        "otp.dispatch.retry.max-attempts=2",
+        "otp.dispatch.retry.min-backoff-ms=10",
+        "otp.dispatch.retry.max-backoff-ms=20",
+        "otp.dispatch.breaker.failure-threshold=2",
+        "otp.dispatch.breaker.open-ms=60000"
+})
+@ActiveProfiles("test")
+class OtpDispatcherTest {
+
+    private static final String WHATSAPP = "/whatsapp";
+    private static final String SMS = "/sms";
+
+    // (path, request body) of every call the fake provider received
+    private static final List<String[]> calls = new CopyOnWriteArrayList<>();
+    private static volatile boolean whatsappFailing = false;
+    private static volatile long latencyMillis = 0;
+    private static final HttpServer provider = startFakeProvider();
+
+    @Autowired
+    private OtpDispatcher otpDispatcher;
+
+    @Autowired
+    private OtpStore otpStore;
+
+    @DynamicPropertySource
+    static void providerUrls(DynamicPropertyRegistry registry) {
+        String base = "http://localhost:" + provider.getAddress().getPort();
+        registry.add("msg91.whatsapp.url", () -> base + WHATSAPP);
+        registry.add("msg91.sms.url", () -> base + SMS);
+    }
+
+    @AfterAll
+    static void stopProvider() {
+        provider.stop(0);
+    }
+
+    @Test
+    void resendWhileQueuedReplacesTheQueuedOtp() throws Exception {
+        whatsappFailing = false;
+        latencyMillis = 400;
+
+        // Occupies the single in-flight slot, so the next phone waits in the queue
+        OtpStore.Entry blocker = send("9700000001");
+        send("9700000002");
+        OtpStore.Entry second = send("9700000002");
+
+        awaitDelivery(blocker);
+        awaitDelivery(second);
+
+        List<String> bodies = bodiesFor("9700000002");
+        assertEquals(1, bodies.size());
+        assertTrue(bodies.get(0).contains(second.getOtp()));
+    }
+
+    @Test
+    void failingPrimaryIsRetriedThenBypassedByTheOpenBreaker() throws Exception {
+        whatsappFailing = true;
+        latencyMillis = 0;
+
+        // 1 call + 2 retries against WhatsApp, then the SMS fallback
+        assertEquals(OtpStore.DeliveryStatus.SENT, awaitDelivery(send("9700000011")));
+        assertEquals(3, count(WHATSAPP, "9700000011"));
+        assertEquals(1, count(SMS, "9700000011"));
+
+        // Second exhausted primary opens the breaker
+        assertEquals(OtpStore.DeliveryStatus.SENT, awaitDelivery(send("9700000012")));
+        assertEquals(CircuitBreaker.State.OPEN, otpDispatcher.getPrimaryBreakerState());
+
+        // While open, the primary is not called at all
+        assertEquals(OtpStore.DeliveryStatus.SENT, awaitDelivery(send("9700000013")));
+        assertEquals(0, count(WHATSAPP, "9700000013"));
+        assertEquals(1, count(SMS, "9700000013"));
+    }
+
+    @Test
+    void fullQueueFailsOnlyTheRejectedOtp() {
+        // Not started, so nothing drains the single queue slot
+        OtpDispatcher stalled = new OtpDispatcher(1, 1, 1000, 0, 10, 20, 5, 1000);
+        OtpStore store = mock(OtpStore.class);
+        ReflectionTestUtils.setField(stalled, "otpStore", store);
+
+        OtpStore.Entry queued = entry("9700000021");
+        OtpStore.Entry rejected = entry("9700000022");
+        OtpStore.Entry resend = entry("9700000021");
+        stalled.dispatch(queued);
+        stalled.dispatch(rejected);
+        stalled.dispatch(resend);
+
+        verify(store).markDelivery(rejected, OtpStore.DeliveryStatus.FAILED);
+        verifyNoMoreInteractions(store);
+        Map<?, ?> pending = (Map<?, ?>) ReflectionTestUtils.getField(stalled, "pending");
+        assertEquals(Map.of("9700000021", resend), pending);
+    }
+
+    private static OtpStore.Entry entry(String phoneNumber) {
+        long now = System.currentTimeMillis();
+        return new OtpStore.Entry(phoneNumber, "123456", now, now, now + 60_000, 0, OtpStore.DeliveryStatus.PENDING);
+    }
+
+    private OtpStore.Entry send(String phoneNumber) {
+        OtpStore.Entry entry = otpStore.issue(phoneNumber, () -> String.valueOf(100000 + (int) (Math.random() * 900000))).entry();
+        otpDispatcher.dispatch(entry);
+        return entry;
+    }
+
+    private OtpStore.DeliveryStatus awaitDelivery(OtpStore.Entry entry) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (System.currentTimeMillis() < deadline) {
+            OtpStore.DeliveryStatus status = otpStore.get(entry.getPhoneNumber())
+                    .filter(current -> current.getIssueId() == entry.getIssueId())
+                    .map(OtpStore.Entry::getDeliveryStatus)
+                    .orElse(OtpStore.DeliveryStatus.PENDING);
+            if (status != OtpStore.DeliveryStatus.PENDING) {
+                return status;
+            }
+            Thread.sleep(20);
+        }
+        return OtpStore.DeliveryStatus.PENDING;
+    }
+
+    private List<String> bodiesFor(String phoneNumber) {
+        return calls.stream().filter(call -> call[1].contains(phoneNumber)).map(call -> call[1]).toList();
+    }
+
+    private long count(String path, String phoneNumber) {
+        return calls.stream().filter(call -> call[0].equals(path) && call[1].contains(phoneNumber)).count();
+    }
+
+    private static HttpServer startFakeProvider() {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.setExecutor(Executors.newFixedThreadPool(4));
+            server.createContext(WHATSAPP, exchange -> respond(exchange, whatsappFailing));
+            server.createContext(SMS, exchange -> respond(exchange, false));
+            server.start();
+            return server;
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static void respond(HttpExchange exchange, boolean fail) throws IOException {
+        calls.add(new String[]{exchange.getHttpContext().getPath(),
+                new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8)});
+        try {
+            Thread.sleep(latencyMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        byte[] body = (fail ? "{\"type\":\"error\",\"message\":\"unavailable\"}" : "{\"type\":\"success\"}")
+                .getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(fail ? 503 : 200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
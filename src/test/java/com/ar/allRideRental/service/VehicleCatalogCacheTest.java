@@ -0,0 +1,68 @@
+package com.ar.allRideRental.service;
+
+import com.ar.allRideRental.model.Vehicle;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+
+// Own database with case-insensitive string comparison, like the SQL Server collation in production
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:catalogcachetest;IGNORECASE=TRUE")
+@ActiveProfiles("test")
+class VehicleCatalogCacheTest {
+
+    @Autowired
+    private VehicleService vehicleService;
+
+    @Test
+    void vehicleWriteEvictsViewsCachedUnderDifferentlyCasedFilters() {
+        Vehicle moved = vehicleService.createVehicle(vehicle("Casetown", "Car"));
+        vehicleService.createVehicle(vehicle("Casetown", "Car"));
+
+        // Cached under the filters as requested, not as stored
+        assertEquals(2, vehicleService.getVehiclesByCity("casetown").size());
+        assertEquals(2, vehicleService.getVehiclesByCityAndType("CASETOWN", "car").size());
+
+        vehicleService.updateVehicle(moved.getId(), vehicle("Othertown", "Car"));
+
+        assertEquals(1, vehicleService.getVehiclesByCity("casetown").size());
+        assertEquals(1, vehicleService.getVehiclesByCityAndType("CASETOWN", "car").size());
+        assertEquals(1, vehicleService.getVehiclesByCity("othertown").size());
+    }
+
+    @Test
+    void deletedVehicleLeavesTheCachedTypeView() {
+        Vehicle removed = vehicleService.createVehicle(vehicle("Typeville", "Scooter"));
+        int before = vehicleService.getVehiclesByType("scooter").size();
+
+        vehicleService.deleteVehicle(removed.getId());
+
+        assertEquals(before - 1, vehicleService.getVehiclesByType("scooter").size());
+    }
+
+    @Test
+    void expiredEntriesAreReloaded() {
+        // Stands in for a write made on another instance, which never invalidates this cache
+        AtomicInteger loads = new AtomicInteger();
+        VehicleCatalogCache fresh = new VehicleCatalogCache(16, 60, mock(CatalogRevision.class), new SimpleMeterRegistry());
+        VehicleCatalogCache expiring = new VehicleCatalogCache(16, 0, mock(CatalogRevision.class), new SimpleMeterRegistry());
+
+        fresh.get(VehicleCatalogCache.ALL, () -> List.of(loads.incrementAndGet()));
+        fresh.get(VehicleCatalogCache.ALL, () -> List.of(loads.incrementAndGet()));
+        assertEquals(1, loads.get());
+
+        expiring.get(VehicleCatalogCache.ALL, () -> List.of(loads.incrementAndGet()));
+        assertEquals(List.of(3), expiring.get(VehicleCatalogCache.ALL, () -> List.of(loads.incrementAndGet())));
+    }
+
+    private static Vehicle vehicle(String city, String type) {
+        return new Vehicle(city + " " + type, type, "1500", List.of("AC"), 4.5, city, "/images/test.jpg");
+    }
+}
@@ -0,0 +1,78 @@
+package com.ar.allRideRental.service;
+
+import com.ar.allRideRental.model.Vehicle;
+import com.ar.allRideRental.repository.VehicleRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class VehicleCatalogQueryCountTest {
+
+    @Autowired
+    private VehicleService vehicleService;
+
+    @Autowired
+    private VehicleRepository vehicleRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void catalogSnapshotStatementCountDoesNotGrowWithVehicles() {
+        createVehicles("Fewtown", 2);
+        createVehicles("Manytown", 30);
+
+        long few = countStatements(() -> assertFeatures(vehicleService.getVehiclesByCity("Fewtown"), 2));
+        long many = countStatements(() -> assertFeatures(vehicleService.getVehiclesByCity("Manytown"), 30));
+
+        assertEquals(few, many);
+    }
+
+    @Test
+    void lazyFeaturesAreBatchFetched() {
+        createVehicles("Batchville", 30);
+
+        long statements = countStatements(() -> transactionTemplate.executeWithoutResult(status ->
+                assertFeatures(vehicleRepository.findByCityAndIsAvailableTrue("Batchville"), 30)));
+
+        // One select for the vehicles, one batched select for all of their features
+        assertTrue(statements <= 2, "expected at most 2 statements but was " + statements);
+    }
+
+    private long countStatements(Runnable action) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        action.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private void assertFeatures(List<Vehicle> vehicles, int expectedVehicles) {
+        assertEquals(expectedVehicles, vehicles.size());
+        for (Vehicle vehicle : vehicles) {
+            assertEquals(List.of("AC", "GPS", "Bluetooth"), vehicle.getFeatures());
+        }
+    }
+
+    private void createVehicles(String city, int count) {
+        for (int i = 0; i < count; i++) {
+            Vehicle vehicle = new Vehicle(city + " Car " + i, "Car", "1500", List.of("AC", "GPS", "Bluetooth"),
+                    4.5, city, "/images/" + city.toLowerCase() + "-" + i + ".jpg");
+            vehicleService.createVehicle(vehicle);
+        }
+    }
+}
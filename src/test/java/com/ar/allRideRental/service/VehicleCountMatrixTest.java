@@ -0,0 +1,40 @@
+package com.ar.allRideRental.service;
+
+import com.ar.allRideRental.repository.VehicleRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class VehicleCountMatrixTest {
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void vehiclesWithoutCityOrTypeAreCountedUnderUnknown() {
+        VehicleRepository vehicleRepository = mock(VehicleRepository.class);
+        when(vehicleRepository.countAvailableByCityAndType()).thenReturn(List.of(
+                new Object[]{"Pune", "Car", 3L},
+                new Object[]{null, "Car", 2L},
+                new Object[]{"Pune", null, 1L}
+        ));
+        VehicleService vehicleService = new VehicleService();
+        ReflectionTestUtils.setField(vehicleService, "vehicleRepository", vehicleRepository);
+        ReflectionTestUtils.setField(vehicleService, "catalogCache",
+                new VehicleCatalogCache(16, 60, mock(CatalogRevision.class), new SimpleMeterRegistry()));
+
+        Map<String, Object> counts = vehicleService.getVehicleCountMatrix();
+
+        assertEquals(6L, counts.get("totalVehicles"));
+        assertEquals(Map.of("Pune", 4L, "unknown", 2L), counts.get("byCity"));
+        assertEquals(Map.of("Car", 5L, "unknown", 1L), counts.get("byType"));
+        Map<String, Map<String, Long>> matrix = (Map<String, Map<String, Long>>) counts.get("matrix");
+        assertEquals(Map.of("Car", 2L), matrix.get("unknown"));
+        assertEquals(Map.of("Car", 3L, "unknown", 1L), matrix.get("Pune"));
+    }
+}
@@ -0,0 +1,95 @@
+package com.ar.allRideRental.service;
+
+import com.ar.allRideRental.dto.VehicleSearchQuery;
+import com.ar.allRideRental.dto.VehicleSearchResult;
+import com.ar.allRideRental.model.Vehicle;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Fed through update() only; marked loaded so search() never goes to the database
+class VehicleSearchIndexTest {
+
+    private VehicleSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new VehicleSearchIndex();
+        ReflectionTestUtils.setField(index, "loaded", true);
+        index.update(vehicle(1L, "Mumbai", "Car", "Petrol", 4.8, "AC", "GPS"));
+        index.update(vehicle(2L, "Mumbai", "Bike", "Petrol", 4.2, "Helmet"));
+        index.update(vehicle(3L, "Pune", "Car", "Diesel", 4.5, "AC"));
+        index.update(vehicle(4L, "Pune", "Car", "Electric", 3.9, "AC", "GPS"));
+    }
+
+    @Test
+    void valuesOfOneFieldAreOredAndFieldsAreAnded() {
+        VehicleSearchQuery query = new VehicleSearchQuery();
+        query.setCity(List.of("Mumbai", "Pune"));
+        query.setFuelType(List.of("Petrol", "Electric"));
+        query.setType(List.of("Car"));
+
+        assertEquals(List.of(1L, 4L), ids(index.search(query)));
+    }
+
+    @Test
+    void featuresAreOredUnlessAllAreRequired() {
+        VehicleSearchQuery query = new VehicleSearchQuery();
+        query.setFeatures(List.of("GPS", "Helmet"));
+        assertEquals(List.of(1L, 2L, 4L), ids(index.search(query)));
+
+        query.setFeatures(List.of("AC", "GPS"));
+        query.setMatchAllFeatures(true);
+        query.setMinRating(4.0);
+        assertEquals(List.of(1L), ids(index.search(query)));
+    }
+
+    @Test
+    void facetsCountTheMatchingVehicles() {
+        VehicleSearchQuery query = new VehicleSearchQuery();
+        query.setType(List.of("Car"));
+
+        Map<String, Map<String, Integer>> facets = index.search(query).getFacets();
+
+        assertEquals(Map.of("Mumbai", 1, "Pune", 2), facets.get(VehicleSearchIndex.CITY));
+        assertEquals(Map.of("AC", 3, "GPS", 2), facets.get(VehicleSearchIndex.FEATURE));
+        assertEquals(Map.of("Petrol", 1, "Diesel", 1, "Electric", 1), facets.get(VehicleSearchIndex.FUEL_TYPE));
+    }
+
+    @Test
+    void updatesAndRemovalsReuseOrdinals() {
+        for (int i = 0; i < 100; i++) {
+            index.update(vehicle(3L, i % 2 == 0 ? "Delhi" : "Pune", "Car", "Diesel", 4.5, "AC"));
+        }
+        Vehicle removed = vehicle(2L, "Mumbai", "Bike", "Petrol", 4.2, "Helmet");
+        removed.setAvailable(false);
+        index.update(removed);
+        index.update(vehicle(5L, "Goa", "Bike", "Petrol", 4.0, "Helmet"));
+
+        assertEquals(4, ((List<?>) ReflectionTestUtils.getField(index, "vehicles")).size());
+
+        VehicleSearchQuery query = new VehicleSearchQuery();
+        VehicleSearchResult all = index.search(query);
+        assertEquals(4, all.getTotal());
+        assertEquals(Map.of("Goa", 1, "Mumbai", 1, "Pune", 2), all.getFacets().get(VehicleSearchIndex.CITY));
+        assertEquals(Map.of("Helmet", 1, "AC", 3, "GPS", 2), all.getFacets().get(VehicleSearchIndex.FEATURE));
+    }
+
+    private static List<Long> ids(VehicleSearchResult result) {
+        return result.getVehicles().stream().map(Vehicle::getId).sorted().toList();
+    }
+
+    private static Vehicle vehicle(Long id, String city, String type, String fuelType, double rating, String... features) {
+        Vehicle vehicle = new Vehicle(city + " " + type, type, "1500", List.of(features), rating, city, "/images/test.jpg");
+        vehicle.setId(id);
+        vehicle.setFuelType(fuelType);
+        vehicle.setTransmission("Manual");
+        vehicle.setCapacity(4);
+        return vehicle;
+    }
+}